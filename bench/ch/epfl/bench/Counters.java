@@ -0,0 +1,33 @@
+package ch.epfl.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Class Counters : the counters of the samples and messages processed by a benchmark, reported by JMH
+ * as rates per second.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Counters {
+    /**
+     * samples : the number of samples, raw or power depending on the stage, processed
+     */
+    public long samples;
+    /**
+     * messages : the number of messages demodulated or parsed
+     */
+    public long messages;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        samples = 0;
+        messages = 0;
+    }
+}
@@ -0,0 +1,103 @@
+package ch.epfl.bench;
+
+import ch.epfl.javions.demodulation.AdsbDemodulator;
+import ch.epfl.javions.demodulation.PowerComputer;
+import ch.epfl.javions.demodulation.PowerWindow;
+import ch.epfl.javions.demodulation.SamplesDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Final class DemodulationBenchmark : measures each stage of the demodulation chain by replaying a whole sample
+ * file, held in memory, through it. Besides the time per replay, the counters give the number of samples
+ * and of messages processed per second.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DemodulationBenchmark {
+    private static final int BATCH_SIZE = 1 << 16;
+    private static final int WINDOW_SIZE = 1200;
+
+    /**
+     * source : the sample file replayed, synthesized or recorded
+     */
+    @Param({"synthetic", "recorded"})
+    public String source;
+
+    private byte[] samples;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = SampleFiles.bytes(source);
+    }
+
+    private InputStream stream() {
+        return new ByteArrayInputStream(samples);
+    }
+
+    @Benchmark
+    public void decodeSamples(Counters counters) throws IOException {
+        SamplesDecoder decoder = new SamplesDecoder(stream(), BATCH_SIZE);
+        short[] batch = new short[BATCH_SIZE];
+        int count;
+
+        while ((count = decoder.readBatch(batch)) > 0) {
+            counters.samples += count;
+        }
+    }
+
+    @Benchmark
+    public void computePowers(Counters counters) throws IOException {
+        PowerComputer computer = new PowerComputer(stream(), BATCH_SIZE);
+        int[] batch = new int[BATCH_SIZE];
+        int count;
+
+        while ((count = computer.readBatch(batch)) > 0) {
+            counters.samples += count;
+        }
+    }
+
+    @Benchmark
+    public int advanceWindow(Counters counters) throws IOException {
+        PowerWindow window = new PowerWindow(stream(), WINDOW_SIZE);
+        int sum = 0;
+
+        while (window.isFull()) {
+            sum += window.get(0) + window.get(WINDOW_SIZE - 1);
+            window.advance();
+            counters.samples++;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void demodulate(Counters counters) throws IOException {
+        AdsbDemodulator demodulator = new AdsbDemodulator(stream());
+
+        while (demodulator.nextMessage() != null) {
+            counters.messages++;
+        }
+        counters.samples += samples.length / Short.BYTES / 2;
+    }
+
+    @Benchmark
+    public void demodulatePipelined(Counters counters) throws IOException {
+        AdsbDemodulator demodulator = AdsbDemodulator.pipelined(stream());
+
+        while (demodulator.nextMessage() != null) {
+            counters.messages++;
+        }
+        counters.samples += samples.length / Short.BYTES / 2;
+    }
+}
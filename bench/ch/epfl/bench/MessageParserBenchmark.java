@@ -0,0 +1,98 @@
+package ch.epfl.bench;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.adsb.MessageParser;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageView;
+import ch.epfl.javions.demodulation.AdsbDemodulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Final class MessageParserBenchmark : measures the parsing of a whole message file, held in memory, either
+ * recorded or demodulated from the synthetic sample file. Besides the time per file, the counters
+ * give the number of messages parsed per second.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageParserBenchmark {
+    /**
+     * RECORDED_PROPERTY : the property giving the path of the recorded message file, the one of the tests by default
+     */
+    static final String RECORDED_PROPERTY = "javions.bench.messages";
+    private static final String RECORDED_DEFAULT = "resources/messages_20230318_0915.bin";
+
+    /**
+     * source : the messages parsed, recorded or demodulated from the synthetic sample file
+     */
+    @Param({"synthetic", "recorded"})
+    public String source;
+
+    private final byte[] viewBytes = new byte[RawMessage.LENGTH];
+    private final RawMessageView view = new RawMessageView(viewBytes);
+    private List<RawMessage> messages;
+    private List<byte[]> messagesBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        messages = source.equals("recorded") ? recordedMessages() : demodulatedMessages();
+        messagesBytes = messages.stream().map(m -> HexFormat.of().parseHex(m.bytes().toString())).toList();
+    }
+
+    private static List<RawMessage> recordedMessages() throws IOException {
+        List<RawMessage> messages = new ArrayList<>();
+        String fileName = System.getProperty(RECORDED_PROPERTY, RECORDED_DEFAULT);
+
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+            byte[] bytes = new byte[RawMessage.LENGTH];
+            while (true) {
+                long timeStampNs = stream.readLong();
+                stream.readFully(bytes);
+                messages.add(new RawMessage(timeStampNs, new ByteString(bytes)));
+            }
+        } catch (EOFException e) {
+            return messages;
+        }
+    }
+
+    private static List<RawMessage> demodulatedMessages() throws IOException {
+        List<RawMessage> messages = new ArrayList<>();
+        AdsbDemodulator demodulator = new AdsbDemodulator(new ByteArrayInputStream(SampleFiles.bytes("synthetic")));
+        RawMessage message;
+
+        while ((message = demodulator.nextMessage()) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    @Benchmark
+    public void parseRawMessages(Counters counters, Blackhole blackhole) {
+        for (RawMessage rawMessage : messages) {
+            blackhole.consume(MessageParser.parse(rawMessage));
+        }
+        counters.messages += messages.size();
+    }
+
+    @Benchmark
+    public void parseViews(Counters counters, Blackhole blackhole) {
+        for (byte[] bytes : messagesBytes) {
+            System.arraycopy(bytes, 0, viewBytes, 0, bytes.length);
+            blackhole.consume(MessageParser.parse(view));
+        }
+        counters.messages += messagesBytes.size();
+    }
+}
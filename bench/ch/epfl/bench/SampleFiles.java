@@ -0,0 +1,113 @@
+package ch.epfl.bench;
+
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Random;
+
+/**
+ * Final class SampleFiles : provides the bytes of the sample files replayed by the benchmarks, either recorded
+ * by the AirSpy or synthesized from known messages, so that the benchmarks also run without any recording.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class SampleFiles {
+    /**
+     * RECORDED_PROPERTY : the property giving the path of the recorded sample file, the one of the tests by default
+     */
+    static final String RECORDED_PROPERTY = "javions.bench.samples";
+    private static final String RECORDED_DEFAULT = "resources/samples_20230304_1442.bin";
+    private static final String[] MESSAGES = {
+            "8D4B17E5F8210002004BB8B1F1AC", "8D49529958B302E6E15FA352306B", "8D39D300990CE72C70089058AD77",
+            "8D4241A9601B32DA4367C4C3965E", "8D4B1A00EA0DC89E8F7C0857D5F5", "8D4D222860B985F7F53FAB33CE76"};
+    private static final int[] PREAMBLE_CHIPS = {1, 0, 1, 0, 0, 0, 0, 1, 0, 1, 0, 0, 0, 0, 0, 0};
+    private static final int[] CARRIER = {1, 0, -1, 0};
+    private static final int SAMPLES_PER_CHIP = 10;
+    private static final int RECENTER_VALUE = 1 << 11;
+    private static final int MAX_SAMPLE = (1 << 12) - 1;
+    private static final double NOISE_DEVIATION = 20;
+    private static final int MIN_AMPLITUDE = 100;
+    private static final int AMPLITUDE_RANGE = 800;
+    private static final int MIN_GAP = 150;
+    private static final int GAP_RANGE = 2000;
+
+    private SampleFiles() {}
+
+    /**
+     * @param name the name of the sample file, "synthetic" or "recorded"
+     * @return the bytes of the sample file
+     * @throws IllegalArgumentException if the name is unknown
+     * @throws UncheckedIOException     if the recorded sample file cannot be read
+     */
+    static byte[] bytes(String name) {
+        return switch (name) {
+            case "synthetic" -> synthetic(3000, 2023);
+            case "recorded" -> recorded();
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    private static byte[] recorded() {
+        try {
+            return Files.readAllBytes(Path.of(System.getProperty(RECORDED_PROPERTY, RECORDED_DEFAULT)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Synthesizes the samples of the AirSpy receiving the given number of ADS-B messages, of random amplitudes
+     * and separated by random gaps, among gaussian noise.
+     *
+     * @param messagesCount the number of messages of the file
+     * @param seed          the seed of the random numbers, so that the same file is synthesized each time
+     * @return the bytes of the samples, in the format of the AirSpy
+     */
+    static byte[] synthetic(int messagesCount, long seed) {
+        Random random = new Random(seed);
+        int messageSamples = (PREAMBLE_CHIPS.length + 2 * Byte.SIZE * RawMessage.LENGTH) * SAMPLES_PER_CHIP;
+        double[] samples = new double[messagesCount * (MIN_GAP + GAP_RANGE + messageSamples)];
+
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextGaussian() * NOISE_DEVIATION;
+        }
+
+        int position = 0;
+        for (int k = 0; k < messagesCount; k++) {
+            byte[] message = HexFormat.of().parseHex(MESSAGES[k % MESSAGES.length]);
+            int amplitude = MIN_AMPLITUDE + random.nextInt(AMPLITUDE_RANGE);
+            position += MIN_GAP + random.nextInt(GAP_RANGE);
+
+            for (int chip : PREAMBLE_CHIPS) {
+                position = addChip(samples, position, chip, amplitude);
+            }
+            for (byte b : message) {
+                for (int i = Byte.SIZE - 1; i >= 0; i--) {
+                    int bit = (b >> i) & 1;
+                    position = addChip(samples, position, bit, amplitude);
+                    position = addChip(samples, position, 1 - bit, amplitude);
+                }
+            }
+        }
+
+        byte[] bytes = new byte[Short.BYTES * samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            int sample = Math.max(0, Math.min(MAX_SAMPLE, (int) Math.round(samples[i]) + RECENTER_VALUE));
+            bytes[2 * i] = (byte) sample;
+            bytes[2 * i + 1] = (byte) (sample >> Byte.SIZE);
+        }
+        return bytes;
+    }
+
+    private static int addChip(double[] samples, int position, int chip, int amplitude) {
+        for (int j = 0; j < SAMPLES_PER_CHIP; j++, position++) {
+            if (chip == 1) samples[position] += amplitude * CARRIER[position % CARRIER.length];
+        }
+        return position;
+    }
+}
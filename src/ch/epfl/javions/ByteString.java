@@ -1,12 +1,22 @@
 package ch.epfl.javions;
 
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.Objects;
 
 /**
  * Class ByteString: represents a sequence of byte.
+ * A byte string usually owns a copy of its bytes, but it can also be a view of a slice of an array
+ * that is not copied (see wrap), in which case it is only immutable as long as the slice isn't modified.
+ * A view is only worth it when the byte string doesn't outlive the slice, like the messages read by the
+ * GUI, which are dropped once parsed : the raw messages kept by the demodulators copy their bytes once
+ * from the reused array of the view (see RawMessageView.toRawMessage), and RawMessage.of still clones the
+ * array of its caller. In the message path, the gain comes from bytesInRange, which reads the bytes at once.
  *
  * @author Yshai  (356356)
  * @author Gabriel Taieb (360560)
@@ -15,7 +25,12 @@ import java.util.Objects;
 public final class ByteString {
     private final static HexFormat HEX_FORMAT = HexFormat.of().withUpperCase();
     private final static int SHIFT_VALUE = 8;
+    private final static VarHandle LONG_BIG_ENDIAN =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
     private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final boolean owned;
 
     /**
      * Constructor of ByteString, returns a string of bytes whose content is the one
@@ -25,7 +40,56 @@ public final class ByteString {
      * @param bytes the bytes we want to clone
      */
     public ByteString(byte[] bytes) {
-        this.bytes = bytes.clone();
+        this(bytes.clone(), 0, bytes.length, true);
+    }
+
+    private ByteString(byte[] bytes, int offset, int length, boolean owned) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.owned = owned;
+    }
+
+    /**
+     * Returns a byte string viewing the given slice of the array, without copying it.
+     * The slice must not be modified while the byte string is in use, unless it is first copied with copy().
+     *
+     * @param bytes  the array containing the bytes
+     * @param offset the index of the first byte of the slice
+     * @param length the number of bytes of the slice
+     * @return the byte string viewing the slice
+     * @throws IndexOutOfBoundsException if the slice isn't contained in the array
+     */
+    public static ByteString wrap(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+
+        return new ByteString(bytes, offset, length, false);
+    }
+
+    /**
+     * Returns a byte string viewing the remaining bytes of the given buffer, without copying them
+     * if the buffer is backed by an accessible array, and as a copy otherwise.
+     * The position of the buffer is left unchanged.
+     *
+     * @param buffer the buffer whose bytes, from its position to its limit, are viewed
+     * @return the byte string viewing the remaining bytes of the buffer
+     */
+    public static ByteString wrap(ByteBuffer buffer) {
+        if (buffer.hasArray())
+            return wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return new ByteString(bytes, 0, bytes.length, true);
+    }
+
+    /**
+     * Copy-on-escape : returns a byte string owning its bytes, to keep once the slice it views may change.
+     *
+     * @return this byte string if it already owns its bytes, otherwise a copy of its bytes
+     */
+    public ByteString copy() {
+        return owned ? this : new ByteString(Arrays.copyOfRange(bytes, offset, offset + length), 0, length, true);
     }
 
 
@@ -40,7 +104,7 @@ public final class ByteString {
     public static ByteString ofHexadecimalString(String hexString) {
         byte[] bytes = HEX_FORMAT.parseHex(hexString);
 
-        return new ByteString(bytes);
+        return new ByteString(bytes, 0, bytes.length, true);
     }
 
     /**
@@ -49,7 +113,7 @@ public final class ByteString {
      * @return the number of byte the string contains
      */
     public int size() {
-        return bytes.length;
+        return length;
     }
 
     /**
@@ -58,13 +122,15 @@ public final class ByteString {
      * @throws IndexOutOfBoundsException if the index given is invalid
      */
     public int byteAt(int index) {
-        return Byte.toUnsignedInt(bytes[index]);
+        return Byte.toUnsignedInt(bytes[offset + Objects.checkIndex(index, length)]);
     }
 
     /**
      * @param fromIndex the index where we want to start
      * @param toIndex   the index where we want to end
-     * @return the bytes between fromIndex and toIndex-1 as a long value (the low byte value is at toIndex - 1)
+     * @return the bytes between fromIndex and toIndex-1 as a long value (the low byte value is at toIndex - 1).
+     * The bytes are read at once as a big-endian long starting at fromIndex, or ending at toIndex, when the array
+     * is long enough for it, the bytes out of the range being then shifted or masked out
      * @throws IndexOutOfBoundsException if the range between fromIndex and toIndex isn't between 0 and the size of the string.
      * @throws IllegalArgumentException  if the difference between toIndex and fromIndex isn't strictly
      *                                   lower to the number of byte in a long type value
@@ -73,10 +139,20 @@ public final class ByteString {
         Objects.checkFromToIndex(fromIndex, toIndex, this.size());
         Preconditions.checkArgument((toIndex - fromIndex) < Long.BYTES);
 
-        long mask = Byte.toUnsignedInt(bytes[fromIndex]);
+        int count = toIndex - fromIndex;
+        if (count == 0) return 0;
+
+        int start = offset + fromIndex;
+        int end = offset + toIndex;
+        if (start + Long.BYTES <= bytes.length)
+            return (long) LONG_BIG_ENDIAN.get(bytes, start) >>> (Byte.SIZE * (Long.BYTES - count));
+        if (end >= Long.BYTES)
+            return (long) LONG_BIG_ENDIAN.get(bytes, end - Long.BYTES) & ((1L << (Byte.SIZE * count)) - 1);
 
-        for (int i = (fromIndex + 1); i < toIndex; i++) {
-            mask = ((mask << SHIFT_VALUE) | byteAt(i));
+        long mask = Byte.toUnsignedInt(bytes[start]);
+
+        for (int i = (start + 1); i < end; i++) {
+            mask = ((mask << SHIFT_VALUE) | Byte.toUnsignedInt(bytes[i]));
         }
 
         return mask;
@@ -91,17 +167,23 @@ public final class ByteString {
      */
     @Override
     public boolean equals(Object obj) {
-        return (obj instanceof ByteString) && (Arrays.equals(((ByteString) obj).bytes, this.bytes));
+        return (obj instanceof ByteString that)
+                && Arrays.equals(that.bytes, that.offset, that.offset + that.length,
+                this.bytes, this.offset, this.offset + this.length);
     }
 
     /**
      * hashcode method of Arrays
      *
-     * @return apply the hashCode method to the Array containing the bytes.
+     * @return the hashCode of Arrays applied to the bytes of the string, computed on its slice of the array.
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(bytes);
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
     }
 
     /**
@@ -112,6 +194,6 @@ public final class ByteString {
      */
     @Override
     public String toString() {
-        return HEX_FORMAT.formatHex(bytes);
+        return HEX_FORMAT.formatHex(bytes, offset, offset + length);
     }
 }
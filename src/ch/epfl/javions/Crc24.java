@@ -13,7 +13,10 @@ public final class Crc24 {
     public static final int GENERATOR = 0xFFF409;
     private static final int CRC_BITS = 24;
     private static final int TABLE_SIZE = 256;
-    private final int[] crcTable;
+    private static final int SLICES = 8;
+    private static final int ALIGNMENT_SHIFT = Integer.SIZE - CRC_BITS;
+    private static final int BYTE_MASK = (1 << Byte.SIZE) - 1;
+    private final int[][] crcTables;
 
     /**
      * public constructor of Crc24
@@ -21,25 +24,50 @@ public final class Crc24 {
      * @param generator the generator used to calculate a CRC24
      */
     public Crc24(int generator) {
-        crcTable = buildTable(generator);
+        crcTables = buildTables(generator);
     }
 
     /**
+     * Computes the CRC eight bytes at a time with the "slicing-by-8" method, then byte by byte for the last bytes.
+     * The CRC is kept in the 24 most significant bits of an int, so that the bytes can be combined with it
+     * without extracting them, and the three zero bytes usually appended to the message are taken
+     * into account by the tables.
+     *
      * @param bytes the bytes use to calculate the crc
      * @return the CRC24 of the array given
      */
     public int crc(byte[] bytes) {
+        int[] t0 = crcTables[0], t1 = crcTables[1], t2 = crcTables[2], t3 = crcTables[3];
+        int[] t4 = crcTables[4], t5 = crcTables[5], t6 = crcTables[6], t7 = crcTables[7];
         int crc = 0;
+        int i = 0;
 
-        for (byte o : bytes)
-            crc = ((crc << Byte.SIZE) | Byte.toUnsignedInt(o)) ^ crcTable[Bits.extractUInt(crc, (CRC_BITS - Byte.SIZE), Byte.SIZE)];
+        for (; i + SLICES <= bytes.length; i += SLICES) {
+            int high = crc ^ ((Byte.toUnsignedInt(bytes[i]) << 24) | (Byte.toUnsignedInt(bytes[i + 1]) << 16)
+                    | (Byte.toUnsignedInt(bytes[i + 2]) << 8) | Byte.toUnsignedInt(bytes[i + 3]));
 
-        for (int i = 0; i < 3; i++)
-            crc = (crc << Byte.SIZE) ^ crcTable[Bits.extractUInt(crc, (CRC_BITS - Byte.SIZE), Byte.SIZE)];
+            crc = t7[high >>> 24] ^ t6[(high >>> 16) & BYTE_MASK] ^ t5[(high >>> 8) & BYTE_MASK] ^ t4[high & BYTE_MASK]
+                    ^ t3[Byte.toUnsignedInt(bytes[i + 4])] ^ t2[Byte.toUnsignedInt(bytes[i + 5])]
+                    ^ t1[Byte.toUnsignedInt(bytes[i + 6])] ^ t0[Byte.toUnsignedInt(bytes[i + 7])];
+        }
 
-        crc = Bits.extractUInt(crc, 0, CRC_BITS);
+        for (; i < bytes.length; i++)
+            crc = (crc << Byte.SIZE) ^ t0[(crc >>> 24) ^ Byte.toUnsignedInt(bytes[i])];
 
-        return crc;
+        return crc >>> ALIGNMENT_SHIFT;
+    }
+
+    /**
+     * Computes the CRC24 of a message one byte at a time, as the bytes become available.
+     *
+     * @param crc  the CRC24 of the bytes preceding the given byte, 0 for the first byte of a message
+     * @param next the byte following these bytes
+     * @return the CRC24 of the bytes preceding the given byte, followed by it
+     */
+    public int update(int crc, byte next) {
+        int aligned = crc << ALIGNMENT_SHIFT;
+
+        return ((aligned << Byte.SIZE) ^ crcTables[0][(aligned >>> 24) ^ Byte.toUnsignedInt(next)]) >>> ALIGNMENT_SHIFT;
     }
 
     /**
@@ -49,7 +77,7 @@ public final class Crc24 {
      * @param bytes     the bytes use to calculate the crc24
      * @return the CRC24 of the given bytes array
      */
-    private static int crc_bitwise(int generator, byte[] bytes) {
+    static int crc_bitwise(int generator, byte[] bytes) {
         int[] tab = {0, generator};
         int crc = 0;
 
@@ -70,16 +98,25 @@ public final class Crc24 {
     }
 
     /**
-     * Builds the table used to calculate a CRC24
+     * Builds the tables used to calculate a CRC24, the table of index k giving the CRC, aligned on the
+     * most significant bits of an int, of each byte followed by k zero bytes.
      *
      * @param generator the generator used to calculate the CRC24
-     * @return the table used to calculate the CRC24
+     * @return the tables used to calculate the CRC24
      */
-    private static int[] buildTable(int generator) {
-        int[] table = new int[TABLE_SIZE];
+    private static int[][] buildTables(int generator) {
+        int[][] tables = new int[SLICES][TABLE_SIZE];
 
-        for (int i = 0; i < TABLE_SIZE; i++) table[i] = crc_bitwise(generator, new byte[]{(byte) i});
+        for (int i = 0; i < TABLE_SIZE; i++)
+            tables[0][i] = crc_bitwise(generator, new byte[]{(byte) i}) << ALIGNMENT_SHIFT;
+
+        for (int k = 1; k < SLICES; k++) {
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                int previous = tables[k - 1][i];
+                tables[k][i] = (previous << Byte.SIZE) ^ tables[0][previous >>> 24];
+            }
+        }
 
-        return table;
+        return tables;
     }
 }
@@ -47,6 +47,9 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
     private final static int BITS_NUMBER = 12;
     private final static int SHIFT_VALUE = 4;
     private final static double DIVISOR = Math.scalb(1d, -17);
+    private final static int[] BIT_POSITIONS =
+            {D1_POS, D2_POS, D4_POS, A1_POS, A2_POS, A4_POS, B1_POS, B2_POS, B4_POS, C1_POS, C2_POS, C4_POS};
+    private final static double[] ALTITUDES = buildAltitudes();
 
     /**
      * @param timeStampNs the time stamp of the message, in nanoseconds
@@ -76,24 +79,57 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
      * or null if the altitude it contains is invalid
      */
     public static AirbornePositionMessage of(RawMessage rawMessage) {
+        return of(rawMessage.timeStampNs(), rawMessage.icaoAddress(), rawMessage.payload());
+    }
+
+    /**
+     * @param timeStampNs the time stamp of the raw message, in nanoseconds
+     * @param icaoAddress the ICAO address of the sender of the raw message
+     * @param payload     the ME attribute of the raw message, extracted once by the caller
+     * @return the flight positioning message corresponding to the given attributes of a raw message
+     * or null if the altitude it contains is invalid
+     */
+    public static AirbornePositionMessage of(long timeStampNs, IcaoAddress icaoAddress, long payload) {
+        int altitude = Bits.extractUInt(payload, ALT_START, ALT_LENGTH);
+        double altitudeMeter = altitudeOf(altitude);
+        if (Double.isNaN(altitudeMeter)) return null;
+
+        int parity = Bits.extractUInt(payload, PARITY_START, BIT_SIZE);
+        double latitude = Bits.extractUInt(payload, LAT_CPR_START, LAT_LON_LENGTH) * DIVISOR;
+        double longitude = Bits.extractUInt(payload, LON_CPR_START, LAT_LON_LENGTH) * DIVISOR;
 
-        long timeStamp = rawMessage.timeStampNs();
-        IcaoAddress icaoAddress = rawMessage.icaoAddress();
+        return new AirbornePositionMessage(timeStampNs, icaoAddress, altitudeMeter, parity, longitude, latitude);
+    }
 
-        int altitude = Bits.extractUInt(rawMessage.payload(), ALT_START, ALT_LENGTH);
-        int parity = Bits.extractUInt(rawMessage.payload(), PARITY_START, BIT_SIZE);
+    /**
+     * @param altitude the 12 bits of an encoded altitude, as found in the ALT attribute of a position message
+     * @return the altitude in meters, or NaN if it is invalid, looked up in the table of the 4096 encoded altitudes
+     */
+    static double altitudeOf(int altitude) {
+        return ALTITUDES[altitude];
+    }
 
-        double latitude = Bits.extractUInt(rawMessage.payload(), LAT_CPR_START, LAT_LON_LENGTH) * DIVISOR;
-        double longitude = Bits.extractUInt(rawMessage.payload(), LON_CPR_START, LAT_LON_LENGTH) * DIVISOR;
+    /**
+     * Decodes once every 12-bit encoded altitude, so that the messages only look their altitude up.
+     *
+     * @return the table giving, for each encoded altitude, the altitude in meters or NaN if it is invalid
+     */
+    private static double[] buildAltitudes() {
+        double[] altitudes = new double[1 << ALT_LENGTH];
 
-        double altitudeMeter;
+        for (int altitude = 0; altitude < altitudes.length; altitude++) {
+            altitudes[altitude] = decodeAltitude(altitude);
+        }
+        return altitudes;
+    }
 
+    private static double decodeAltitude(int altitude) {
         if (Bits.testBit(altitude, Q_POSITION)) {
             int part1 = Bits.extractUInt(altitude, Q1_PART1_START, Q1_PART1_LENGTH);
             int part2 = Bits.extractUInt(altitude, Q1_PART2_START, Q1_PART2_LENGTH);
             altitude = (part1 << SHIFT_VALUE) | part2;
 
-            altitudeMeter = Units.convertFrom(-1000 + altitude * 25, Units.Length.FOOT);
+            return Units.convertFrom(-1000 + altitude * 25, Units.Length.FOOT);
         } else {
             int disentangledAlt = disentangling(altitude);
 
@@ -103,23 +139,19 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
             part1 = grayCodeValueOf(part1, Q0_PART1_LENGTH);
             part2 = grayCodeValueOf(part2, Q0_PART2_LENGTH);
 
-            if (part1 == 0 || part1 == 5 || part1 == 6) return null;
+            if (part1 == 0 || part1 == 5 || part1 == 6) return Double.NaN;
             if (part1 == 7) part1 = 5;
             if (part2 % 2 == 1) part1 = 6 - part1;
 
-            altitudeMeter = Units.convertFrom(-1300 + part1 * 100 + part2 * 500, Units.Length.FOOT);
+            return Units.convertFrom(-1300 + part1 * 100 + part2 * 500, Units.Length.FOOT);
         }
-
-        return new AirbornePositionMessage(timeStamp, icaoAddress, altitudeMeter, parity, longitude, latitude);
     }
 
     private static int disentangling(int altitude) {
-
-        int [] bitPositions = {D1_POS, D2_POS, D4_POS, A1_POS, A2_POS, A4_POS, B1_POS, B2_POS, B4_POS, C1_POS, C2_POS, C4_POS};
         int disentangledAlt = 0;
 
         for (int i = 0; i < BITS_NUMBER; i++) {
-            disentangledAlt |= Bits.extractUInt(altitude, bitPositions[i], BIT_SIZE) << ((BITS_NUMBER - 1) - i);
+            disentangledAlt |= Bits.extractUInt(altitude, BIT_POSITIONS[i], BIT_SIZE) << ((BITS_NUMBER - 1) - i);
         }
 
         return disentangledAlt;
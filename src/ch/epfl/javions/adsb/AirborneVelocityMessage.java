@@ -55,8 +55,19 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
      *                   subtype is invalid, or if the speed or direction of travel cannot be determined.
      */
     public static AirborneVelocityMessage of(RawMessage rawMessage) {
-        int subType = Bits.extractUInt(rawMessage.payload(), SUBTYPE_START, SUBTYPE_LENGTH);
-        int subPayload = Bits.extractUInt(rawMessage.payload(), SUBPAYLOAD_START, SUBPAYLOAD_LENGTH);
+        return of(rawMessage.timeStampNs(), rawMessage.icaoAddress(), rawMessage.payload());
+    }
+
+    /**
+     * @param timeStampNs the time stamp of the raw message, in nanoseconds
+     * @param icaoAddress the ICAO address of the sender of the raw message
+     * @param payload     the ME attribute of the raw message, extracted once by the caller
+     * @return the airspeed message corresponding to the given attributes of a raw message, or null if the
+     * subtype is invalid, or if the speed or direction of travel cannot be determined.
+     */
+    public static AirborneVelocityMessage of(long timeStampNs, IcaoAddress icaoAddress, long payload) {
+        int subType = Bits.extractUInt(payload, SUBTYPE_START, SUBTYPE_LENGTH);
+        int subPayload = Bits.extractUInt(payload, SUBPAYLOAD_START, SUBPAYLOAD_LENGTH);
 
         if ((subType < SUBTYPE_MIN_VALUE) || (subType > SUBTYPE_MAX_VALUE)) return null;
 
@@ -77,7 +88,7 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
 
             speedNormMeterPerSecond = calculateSpeedNormMeterPerSecond(subType, speedNS, speedEW);
 
-            return new AirborneVelocityMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+            return new AirborneVelocityMessage(timeStampNs, icaoAddress,
                     speedNormMeterPerSecond, track0rHeadingRadian);
         } else {
 
@@ -90,7 +101,7 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
 
                 speedNormMeterPerSecond = calculateSpeedNormMeterPerSecond(subType, temporarySpeed);
 
-                return new AirborneVelocityMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+                return new AirborneVelocityMessage(timeStampNs, icaoAddress,
                         speedNormMeterPerSecond, track0rHeadingRadian);
             }
             return null;
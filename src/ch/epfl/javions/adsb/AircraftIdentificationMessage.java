@@ -19,12 +19,19 @@ public record AircraftIdentificationMessage(long timeStampNs, IcaoAddress icaoAd
     private final static int CHARS_START = 42;
     private final static int CHARS_NUMBER = 8;
     private final static int CHARS_SIZE = 6;
+    private final static int CHARS_MASK = (1 << CHARS_SIZE) - 1;
+    private final static long CALL_SIGN_MASK = (1L << (CHARS_NUMBER * CHARS_SIZE)) - 1;
     private final static int LETTERS_BOUND1 = 1;
     private final static int LETTERS_BOUND2 = 26;
     private final static int LETTERS_START_ASCII = 64;
     private final static int NUMBERS_BOUND1 = 48;
     private final static int NUMBERS_BOUND2 = 57;
     private final static int SPACE_CHAR = 32;
+    private final static char INVALID_CHAR = 0;
+    private final static char[] CHARS = buildChars();
+    private final static int CACHE_BITS = 12;
+    private final static int CACHE_MASK = (1 << CACHE_BITS) - 1;
+    private final static CachedCallSign[] CALL_SIGNS_CACHE = new CachedCallSign[1 << CACHE_BITS];
     private final static int GIVEN_CONST = 14;
     private final static int SHIFT_VALUE = 4;
 
@@ -48,38 +55,81 @@ public record AircraftIdentificationMessage(long timeStampNs, IcaoAddress icaoAd
      * or null if at least one of the characters of the code it contains is invalid
      */
     public static AircraftIdentificationMessage of(RawMessage rawMessage) {
-        int typeCode = rawMessage.typeCode();
+        return of(rawMessage.timeStampNs(), rawMessage.icaoAddress(), rawMessage.payload());
+    }
 
-        int categoryByte = Bits.extractUInt(rawMessage.payload(), CA_START, CA_LENGTH);
+    /**
+     * @param timeStampNs the time stamp of the raw message, in nanoseconds
+     * @param icaoAddress the ICAO address of the sender of the raw message
+     * @param payload     the ME attribute of the raw message, extracted once by the caller
+     * @return the identification message corresponding to the given attributes of a raw message,
+     * or null if at least one of the characters of the code it contains is invalid
+     */
+    public static AircraftIdentificationMessage of(long timeStampNs, IcaoAddress icaoAddress, long payload) {
+        int typeCode = RawMessage.typeCode(payload);
 
-        String callString = extractCallstring(rawMessage.payload());
+        int categoryByte = Bits.extractUInt(payload, CA_START, CA_LENGTH);
 
-        if (callString == null) return null;
+        CallSign callSign = callSignOf(payload & CALL_SIGN_MASK);
 
-        while (callString.endsWith(" ")) {
-            callString = callString.substring(0, (callString.length() - 1));
-        }
+        if (callSign == null) return null;
 
-        long timeStamps = rawMessage.timeStampNs();
-        IcaoAddress icaoAddress = rawMessage.icaoAddress();
         int category = Byte.toUnsignedInt((byte) (((GIVEN_CONST - typeCode) << SHIFT_VALUE) | categoryByte));
 
-        return new AircraftIdentificationMessage(timeStamps, icaoAddress, category, new CallSign(callString));
+        return new AircraftIdentificationMessage(timeStampNs, icaoAddress, category, callSign);
+    }
+
+    /**
+     * Returns the call sign of the given characters, reusing the one returned for the last call with them
+     * if it is still cached, so that the messages of an aircraft usually share a single call sign.
+     * The cache is shared by all the threads : its slots may be overwritten concurrently, which at worst
+     * decodes a call sign twice, since the cached entries are immutable.
+     *
+     * @param characters the eight 6-bit characters of a call sign, the first one in the most significant bits
+     * @return the call sign, without its trailing spaces, or null if one of the characters is invalid
+     */
+    private static CallSign callSignOf(long characters) {
+        int slot = (int) (characters ^ (characters >>> CACHE_BITS) ^ (characters >>> (2 * CACHE_BITS))) & CACHE_MASK;
+        CachedCallSign cached = CALL_SIGNS_CACHE[slot];
+        if (cached != null && cached.characters() == characters) return cached.callSign();
+
+        String callString = extractCallstring(characters);
+        if (callString == null) return null;
+
+        CallSign callSign = new CallSign(callString);
+        CALL_SIGNS_CACHE[slot] = new CachedCallSign(characters, callSign);
+        return callSign;
     }
 
-    private static String extractCallstring(long payload) {
-        int bitStart = CHARS_START;
-        StringBuilder callString = new StringBuilder();
-
-        for (int i = 0; i < CHARS_NUMBER; i++) {
-            int extractedInt = Bits.extractUInt(payload, bitStart, CHARS_SIZE);
-            if (extractedInt >= LETTERS_BOUND1 && extractedInt <= LETTERS_BOUND2)
-                callString.append((char) (extractedInt + LETTERS_START_ASCII));
-            else if ((extractedInt >= NUMBERS_BOUND1 && extractedInt <= NUMBERS_BOUND2) || (extractedInt == SPACE_CHAR))
-                callString.append((char) extractedInt);
-            else return null;
-            bitStart -= CHARS_SIZE;
+    private static String extractCallstring(long characters) {
+        char[] callString = new char[CHARS_NUMBER];
+        int length = 0;
+
+        for (int i = 0, bitStart = CHARS_START; i < CHARS_NUMBER; i++, bitStart -= CHARS_SIZE) {
+            char c = CHARS[(int) (characters >>> bitStart) & CHARS_MASK];
+            if (c == INVALID_CHAR) return null;
+
+            callString[i] = c;
+            if (c != SPACE_CHAR) length = i + 1;
         }
-        return callString.toString();
+        return new String(callString, 0, length);
     }
+
+    /**
+     * @return the table giving the character of each 6-bit code of the call signs, or INVALID_CHAR
+     * if the code does not represent any character
+     */
+    private static char[] buildChars() {
+        char[] chars = new char[1 << CHARS_SIZE];
+
+        for (int code = LETTERS_BOUND1; code <= LETTERS_BOUND2; code++)
+            chars[code] = (char) (code + LETTERS_START_ASCII);
+        for (int code = NUMBERS_BOUND1; code <= NUMBERS_BOUND2; code++)
+            chars[code] = (char) code;
+        chars[SPACE_CHAR] = SPACE_CHAR;
+
+        return chars;
+    }
+
+    private record CachedCallSign(long characters, CallSign callSign) {}
 }
@@ -68,6 +68,9 @@ public final class AircraftStateAccumulator<T extends AircraftStateSetter> {
                 stateSetter.setVelocity(avm.speed());
                 stateSetter.setTrackOrHeading(avm.trackOrHeading());
             }
+            case AltitudeReplyMessage arm -> stateSetter.setAltitude(arm.altitude());
+            case AllCallReplyMessage acm -> {}
+            case IdentityReplyMessage irm -> {}
             default -> throw new Error();
         }
     }
@@ -0,0 +1,42 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Bits;
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.Objects;
+
+/**
+ * Record AllCallReplyMessage : represents an all-call reply (DF 11), a short message sent by a transponder
+ * to announce its ICAO address and its capability.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public record AllCallReplyMessage(long timeStampNs, IcaoAddress icaoAddress, int capability) implements Message {
+    private final static int CAPABILITY_START = 0;
+    private final static int CAPABILITY_LENGTH = 3;
+    private final static int MAX_CAPABILITY = 7;
+
+    /**
+     * @param timeStampNs the time stamp of the message, in nanoseconds
+     * @param icaoAddress the ICAO address of the sender of the message
+     * @param capability  the capability of the transponder of the sender, between 0 and 7
+     * @throws NullPointerException     if icaoAddress is null
+     * @throws IllegalArgumentException if timeStampNs is strictly less than 0, or capability is not between 0 and 7
+     */
+    public AllCallReplyMessage {
+        Objects.requireNonNull(icaoAddress);
+        Preconditions.checkArgument((timeStampNs >= 0) && (capability >= 0) && (capability <= MAX_CAPABILITY));
+    }
+
+    /**
+     * @param rawMessage the raw all-call reply
+     * @return the all-call reply message corresponding to the given raw message
+     */
+    public static AllCallReplyMessage of(RawMessage rawMessage) {
+        int capability = Bits.extractUInt(rawMessage.bytes().byteAt(0), CAPABILITY_START, CAPABILITY_LENGTH);
+
+        return new AllCallReplyMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(), capability);
+    }
+}
@@ -0,0 +1,52 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Bits;
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.Objects;
+
+/**
+ * Record AltitudeReplyMessage : represents a surveillance altitude reply (DF 4, or DF 20 for its long form),
+ * sent by a transponder in response to an interrogation of a radar.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public record AltitudeReplyMessage(long timeStampNs, IcaoAddress icaoAddress, double altitude) implements Message {
+    private final static int HEADER_LENGTH = 4;
+    private final static int AC_START = 0;
+    private final static int AC_LENGTH = 13;
+    private final static int M_POSITION = 6;
+
+    /**
+     * @param timeStampNs the time stamp of the message, in nanoseconds
+     * @param icaoAddress the ICAO address of the sender of the message
+     * @param altitude    the altitude at which the aircraft was at the time the message was sent, in meters
+     * @throws NullPointerException     if icaoAddress is null
+     * @throws IllegalArgumentException if timeStampNs is strictly less than 0.
+     */
+    public AltitudeReplyMessage {
+        Objects.requireNonNull(icaoAddress);
+        Preconditions.checkArgument(timeStampNs >= 0);
+    }
+
+    /**
+     * @param rawMessage the raw surveillance altitude reply
+     * @return the altitude reply message corresponding to the given raw message, or null if the altitude
+     * it contains is unknown, expressed in meters by the transponder (M bit), or invalid
+     */
+    public static AltitudeReplyMessage of(RawMessage rawMessage) {
+        long header = rawMessage.bytes().bytesInRange(0, HEADER_LENGTH);
+        int altitudeCode = Bits.extractUInt(header, AC_START, AC_LENGTH);
+
+        if (altitudeCode == 0 || Bits.testBit(altitudeCode, M_POSITION)) return null;
+
+        int altitude = ((altitudeCode >>> (M_POSITION + 1)) << M_POSITION)
+                | Bits.extractUInt(altitudeCode, 0, M_POSITION);
+        double altitudeMeter = AirbornePositionMessage.altitudeOf(altitude);
+        if (Double.isNaN(altitudeMeter)) return null;
+
+        return new AltitudeReplyMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(), altitudeMeter);
+    }
+}
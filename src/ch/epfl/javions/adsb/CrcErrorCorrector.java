@@ -0,0 +1,125 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Final class CrcErrorCorrector : repairs the ADS-B messages of LENGTH (14) bytes whose CRC24 is not 0
+ * because of one or two flipped bits, by looking up the CRC24 of the received bytes (their syndrome)
+ * in a table giving the bits whose flipping produces it.
+ * The bits of the DF attribute are never corrected, since the demodulator already relied on them.
+ * Each instance counts the messages it corrected and rejected, and must only be used by one thread.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public final class CrcErrorCorrector {
+    private static final int MAX_CORRECTED_BITS = 2;
+    private static final int MESSAGE_BITS = RawMessage.LENGTH * Byte.SIZE;
+    private static final int FIRST_CORRECTED_BIT = 5;
+    private final static Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private final static Map<Integer, int[]> SINGLE_BIT_SYNDROMES = buildSyndromes(1);
+    private final static Map<Integer, int[]> TWO_BITS_SYNDROMES = buildSyndromes(2);
+    private final Map<Integer, int[]> syndromes;
+    private long correctedCount;
+    private long rejectedCount;
+
+    /**
+     * CrcErrorCorrector's constructor.
+     *
+     * @param maxCorrectedBits the maximum number of flipped bits corrected in a message, 1 or 2
+     * @throws IllegalArgumentException if the maximum number of corrected bits is not 1 or 2
+     */
+    public CrcErrorCorrector(int maxCorrectedBits) {
+        Preconditions.checkArgument(maxCorrectedBits >= 1 && maxCorrectedBits <= MAX_CORRECTED_BITS);
+
+        syndromes = (maxCorrectedBits == 1) ? SINGLE_BIT_SYNDROMES : TWO_BITS_SYNDROMES;
+    }
+
+    /**
+     * Checks the CRC24 of the given message and, if it is not 0, tries to repair it in place.
+     *
+     * @param bytes the LENGTH (14) bytes of a message, modified if they are corrected
+     * @return true iff the CRC24 of the bytes was 0 or has been made 0 by the correction
+     * @throws IllegalArgumentException if the array doesn't contain LENGTH (14) bytes
+     */
+    public boolean correct(byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+
+        int syndrome = CRC24.crc(bytes);
+        if (syndrome == 0) return true;
+
+        int[] flippedBits = syndromes.get(syndrome);
+        if (flippedBits == null) {
+            rejectedCount++;
+            return false;
+        }
+
+        for (int bit : flippedBits)
+            flipBit(bytes, bit);
+        correctedCount++;
+
+        return true;
+    }
+
+    /**
+     * @return the number of messages corrected so far
+     */
+    public long correctedCount() {
+        return correctedCount;
+    }
+
+    /**
+     * @return the number of messages whose CRC24 was not 0 and which could not be corrected so far
+     */
+    public long rejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Builds the table giving, for the syndrome of each pattern of at most the given number of flipped bits,
+     * the index of these bits, from the most significant bit of the first byte.
+     * The syndromes shared by several patterns are left out, since the message could not be repaired with certainty.
+     *
+     * @param maxBits the maximum number of flipped bits of the patterns
+     * @return the table of the syndromes
+     */
+    private static Map<Integer, int[]> buildSyndromes(int maxBits) {
+        Map<Integer, int[]> syndromes = new HashMap<>();
+        Set<Integer> ambiguous = new HashSet<>();
+        int[] bitSyndromes = new int[MESSAGE_BITS];
+
+        for (int i = FIRST_CORRECTED_BIT; i < MESSAGE_BITS; i++) {
+            byte[] error = new byte[RawMessage.LENGTH];
+            flipBit(error, i);
+            bitSyndromes[i] = CRC24.crc(error);
+            addSyndrome(syndromes, ambiguous, bitSyndromes[i], new int[]{i});
+        }
+
+        if (maxBits == 2) {
+            for (int i = FIRST_CORRECTED_BIT; i < MESSAGE_BITS; i++) {
+                for (int j = i + 1; j < MESSAGE_BITS; j++)
+                    addSyndrome(syndromes, ambiguous, bitSyndromes[i] ^ bitSyndromes[j], new int[]{i, j});
+            }
+        }
+
+        syndromes.keySet().removeAll(ambiguous);
+
+        return Map.copyOf(syndromes);
+    }
+
+    private static void addSyndrome(Map<Integer, int[]> syndromes, Set<Integer> ambiguous,
+                                    int syndrome, int[] bits) {
+        if (syndromes.putIfAbsent(syndrome, bits) != null)
+            ambiguous.add(syndrome);
+    }
+
+    private static void flipBit(byte[] bytes, int bit) {
+        bytes[bit / Byte.SIZE] ^= (byte) (1 << (Byte.SIZE - 1 - bit % Byte.SIZE));
+    }
+}
@@ -0,0 +1,65 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Bits;
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.Objects;
+
+/**
+ * Record IdentityReplyMessage : represents a surveillance identity reply (DF 5, or DF 21 for its long form),
+ * giving the identity code (squawk) set by the pilot on the transponder.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public record IdentityReplyMessage(long timeStampNs, IcaoAddress icaoAddress, int squawk) implements Message {
+    private final static int HEADER_LENGTH = 4;
+    private final static int MAX_SQUAWK = 7777;
+    private final static int A1_POS = 11;
+    private final static int A2_POS = 9;
+    private final static int A4_POS = 7;
+    private final static int B1_POS = 5;
+    private final static int B2_POS = 3;
+    private final static int B4_POS = 1;
+    private final static int C1_POS = 12;
+    private final static int C2_POS = 10;
+    private final static int C4_POS = 8;
+    private final static int D1_POS = 4;
+    private final static int D2_POS = 2;
+    private final static int D4_POS = 0;
+
+    /**
+     * @param timeStampNs the time stamp of the message, in nanoseconds
+     * @param icaoAddress the ICAO address of the sender of the message
+     * @param squawk      the identity code, whose four decimal digits are its four octal digits (e.g. 7700)
+     * @throws NullPointerException     if icaoAddress is null
+     * @throws IllegalArgumentException if timeStampNs is strictly less than 0, or squawk is not between 0 and 7777
+     */
+    public IdentityReplyMessage {
+        Objects.requireNonNull(icaoAddress);
+        Preconditions.checkArgument((timeStampNs >= 0) && (squawk >= 0) && (squawk <= MAX_SQUAWK));
+    }
+
+    /**
+     * @param rawMessage the raw surveillance identity reply
+     * @return the identity reply message corresponding to the given raw message
+     */
+    public static IdentityReplyMessage of(RawMessage rawMessage) {
+        int identity = (int) rawMessage.bytes().bytesInRange(0, HEADER_LENGTH);
+
+        int a = octalDigit(identity, A4_POS, A2_POS, A1_POS);
+        int b = octalDigit(identity, B4_POS, B2_POS, B1_POS);
+        int c = octalDigit(identity, C4_POS, C2_POS, C1_POS);
+        int d = octalDigit(identity, D4_POS, D2_POS, D1_POS);
+
+        return new IdentityReplyMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+                ((a * 10 + b) * 10 + c) * 10 + d);
+    }
+
+    private static int octalDigit(int identity, int pos4, int pos2, int pos1) {
+        return (Bits.extractUInt(identity, pos4, 1) << 2)
+                | (Bits.extractUInt(identity, pos2, 1) << 1)
+                | Bits.extractUInt(identity, pos1, 1);
+    }
+}
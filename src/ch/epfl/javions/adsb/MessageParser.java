@@ -1,31 +1,82 @@
 package ch.epfl.javions.adsb;
 
+import ch.epfl.javions.Bits;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
 /**
  * Class MessageParser : transforms raw ADS-B messages into one of three types of messages:
- * identification, flight position, flight speed.
+ * identification, flight position, flight speed, and the other raw Mode S messages into
+ * all-call, altitude or identity replies.
  *
  * @author Yshai  (356356)
  * @author Gabriel Taieb (360560)
  */
 public final class MessageParser {
+    private final static int CF_START = 0;
+    private final static int CF_LENGTH = 3;
+    private final static int ICAO_CONTROL_FIELD = 0;
 
     private MessageParser() {}
 
     /**
      * @param rawMessage that gives the instance of AircraftIdentificationMessage,
-     *                   AirbornePositionMessage or AirborneVelocityMessage
-     * @return the instance of AircraftIdentificationMessage, AirbornePositionMessage or AirborneVelocityMessage
-     * corresponding to the given raw message, or null if the type code of the latter does
-     * not correspond to any of these three message types, or if it is invalid.
+     *                   AirbornePositionMessage or AirborneVelocityMessage for the ADS-B messages (DF 17, and
+     *                   DF 18 sent with an ICAO address), or of AllCallReplyMessage, AltitudeReplyMessage or
+     *                   IdentityReplyMessage for the replies (DF 11, 4 or 20, 5 or 21)
+     * @return the message corresponding to the given raw message, or null if its downlink format or
+     * the type code of the latter does not correspond to any of these message types, or if it is invalid.
      */
     public static Message parse(RawMessage rawMessage) {
-        int typeCode = rawMessage.typeCode();
+        return switch (rawMessage.downLinkFormat()) {
+            case 4, 20 -> AltitudeReplyMessage.of(rawMessage);
+            case 5, 21 -> IdentityReplyMessage.of(rawMessage);
+            case 11 -> AllCallReplyMessage.of(rawMessage);
+            case 17 -> parseAdsb(rawMessage.timeStampNs(), rawMessage.icaoAddressValue(), rawMessage.payload());
+            case 18 -> (controlField(rawMessage.bytes().byteAt(0)) == ICAO_CONTROL_FIELD) ?
+                    parseAdsb(rawMessage.timeStampNs(), rawMessage.icaoAddressValue(), rawMessage.payload()) : null;
+            default -> null;
+        };
+    }
+
+    /**
+     * @param rawMessageView the view of a raw message, which is only copied if it is a reply,
+     *                       the ADS-B messages (DF 17 and 18) being decoded from the view itself
+     * @return the message corresponding to the given message, or null if its downlink format or
+     * the type code of the latter does not correspond to any of the message types, or if it is invalid.
+     */
+    public static Message parse(RawMessageView rawMessageView) {
+        return switch (rawMessageView.downLinkFormat()) {
+            case 4, 5, 11, 20, 21 -> parse(rawMessageView.toRawMessage());
+            case 17 -> parseAdsb(rawMessageView.timeStampNs(), rawMessageView.icaoAddressValue(),
+                    rawMessageView.payload());
+            case 18 -> (controlField(rawMessageView.byteAt(0)) == ICAO_CONTROL_FIELD) ?
+                    parseAdsb(rawMessageView.timeStampNs(), rawMessageView.icaoAddressValue(),
+                            rawMessageView.payload()) : null;
+            default -> null;
+        };
+    }
 
-        return switch (typeCode) {
-            case 1, 2, 3, 4 -> AircraftIdentificationMessage.of(rawMessage);
-            case 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 20, 21, 22 -> AirbornePositionMessage.of(rawMessage);
-            case 19 -> AirborneVelocityMessage.of(rawMessage);
+    /**
+     * Decodes an ADS-B message from its attributes, each extracted once from the raw message,
+     * the ICAO address object only being obtained for the known type codes.
+     *
+     * @param timeStampNs the time stamp of the message, in nanoseconds
+     * @param icaoAddress the 24-bit ICAO address of the sender of the message
+     * @param payload     the ME attribute of the message
+     * @return the message corresponding to the given attributes, or null if the type code is unknown
+     * or if the message is invalid
+     */
+    private static Message parseAdsb(long timeStampNs, int icaoAddress, long payload) {
+        return switch (RawMessage.typeCode(payload)) {
+            case 1, 2, 3, 4 -> AircraftIdentificationMessage.of(timeStampNs, IcaoAddress.of(icaoAddress), payload);
+            case 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 20, 21, 22 ->
+                    AirbornePositionMessage.of(timeStampNs, IcaoAddress.of(icaoAddress), payload);
+            case 19 -> AirborneVelocityMessage.of(timeStampNs, IcaoAddress.of(icaoAddress), payload);
             default -> null;
         };
     }
+
+    private static int controlField(int byte0) {
+        return Bits.extractUInt(byte0, CF_START, CF_LENGTH);
+    }
 }
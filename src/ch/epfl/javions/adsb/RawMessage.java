@@ -6,22 +6,37 @@ import ch.epfl.javions.Crc24;
 import ch.epfl.javions.Preconditions;
 import ch.epfl.javions.aircraft.IcaoAddress;
 
-import java.util.HexFormat;
-
 /**
- * Record RawMessage : represents an ADS-B message whose ME attribute has not yet been analyzed.
+ * Record RawMessage : represents a Mode S message whose attributes have not yet been analyzed, either an ADS-B
+ * message of LENGTH (14) bytes or a short message of SHORT_LENGTH (7) bytes.
+ * A message is identified by its time stamp and its bytes only : its powers, which are measurements,
+ * are not taken into account by equals, hashCode and toString.
  *
  * @param timeStampNs the time stamp of the message, expressed in nanoseconds
  *                    from the time of the very first calculated power sample,
  * @param bytes       the bytes of the message.
+ * @param signalPower the mean of the power samples of the halves of the bits carrying a pulse,
+ *                    or NaN if the message was not demodulated
+ * @param noisePower  the mean of the power samples of the halves of the bits without pulse,
+ *                    or NaN if the message was not demodulated
  * @author Yshai  (356356)
  * @author Gabriel Taieb (360560)
  */
-public record RawMessage(long timeStampNs, ByteString bytes) {
+public record RawMessage(long timeStampNs, ByteString bytes, double signalPower, double noisePower) {
     /**
      * LENGTH : constant of value 14
      */
     public static final int LENGTH = 14;
+    /**
+     * SHORT_LENGTH : constant of value 7, the length of the messages of the downlink formats 4, 5 and 11
+     */
+    public static final int SHORT_LENGTH = 7;
+    /**
+     * CRC_LENGTH : constant of value 3, the length of the parity field ending every message
+     */
+    public static final int CRC_LENGTH = 3;
+    private static final int CRC_MASK = (1 << 24) - 1;
+    private static final int ALL_CALL_CRC_MASK = CRC_MASK & ~0x7F;
     private static final int DF_INDEX = 0;
     private static final int PAYLOAD_START = 4;
     private static final int PAYLOAD_LENGTH = 10;
@@ -32,20 +47,34 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
     private static final int TYPECODE_LENGTH = 5;
     private static final int ICAO_START = 1;
     private static final int ICAO_LENGTH = 4;
-    private static final int ICAO_SIZE = 6;
-    private final static HexFormat HEX_FORMAT = HexFormat.of().withUpperCase();
     private final static Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private final static double FULL_SCALE_POWER = 2d * (4 * 2048) * (4 * 2048);
 
     /**
      * RawMessage compact constructor
      *
      * @param timeStampNs the time stamp in nanoseconds
-     * @param bytes       a byte string of length 14
-     * @throws IllegalArgumentException if the timestamp is (strictly) negative, or if the byte string does not
-     *                                  contain LENGTH (14) bytes
+     * @param bytes       a byte string of length 14 or 7
+     * @param signalPower the mean power of the pulses of the message, or NaN if it is unknown
+     * @param noisePower  the mean power between the pulses of the message, or NaN if it is unknown
+     * @throws IllegalArgumentException if the timestamp is (strictly) negative, if the byte string does not
+     *                                  contain LENGTH (14) or SHORT_LENGTH (7) bytes, or if a power is negative
      */
     public RawMessage {
-        Preconditions.checkArgument((timeStampNs >= 0) && (bytes.size() == LENGTH));
+        Preconditions.checkArgument((timeStampNs >= 0) && (bytes.size() == LENGTH || bytes.size() == SHORT_LENGTH)
+                && !(signalPower < 0) && !(noisePower < 0));
+    }
+
+    /**
+     * RawMessage constructor, for a message whose powers are unknown
+     *
+     * @param timeStampNs the time stamp in nanoseconds
+     * @param bytes       a byte string of length 14 or 7
+     * @throws IllegalArgumentException if the timestamp is (strictly) negative, or if the byte string does not
+     *                                  contain LENGTH (14) or SHORT_LENGTH (7) bytes
+     */
+    public RawMessage(long timeStampNs, ByteString bytes) {
+        this(timeStampNs, bytes, Double.NaN, Double.NaN);
     }
 
     /**
@@ -54,12 +83,20 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
      * @return the raw ADS-B message with timestamp and given bytes or null if the CRC24 of the bytes is not 0.
      */
     public static RawMessage of(long timeStampNs, byte[] bytes) {
-        return (CRC24.crc(bytes) != 0) ? null : new RawMessage(timeStampNs, new ByteString(bytes));
+        return crcIsValid(bytes) ? new RawMessage(timeStampNs, new ByteString(bytes)) : null;
+    }
+
+    /**
+     * @param bytes the bytes of a message
+     * @return true iff the CRC24 of the given bytes is 0
+     */
+    public static boolean crcIsValid(byte[] bytes) {
+        return CRC24.crc(bytes) == 0;
     }
 
     /**
      * @param byte0 the first byte of a message
-     * @return the size of a message whose first byte is the given
+     * @return the size of an ADS-B message whose first byte is the given, or 0 if it is not an ADS-B message (DF 17)
      */
     public static int size(byte byte0) {
         int DF = Bits.extractUInt(byte0, DF_START, DF_LENGTH);
@@ -67,6 +104,38 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
         return (DF == EXPECTED_DF) ? LENGTH : 0;
     }
 
+    /**
+     * @param byte0 the first byte of a Mode S message
+     * @return the size of a message whose first byte is the given, or 0 if its downlink format is not
+     * one of the decoded ones : 4, 5 and 11 for short messages, 17, 18, 20 and 21 for long ones.
+     */
+    public static int frameSize(byte byte0) {
+        int DF = Bits.extractUInt(byte0, DF_START, DF_LENGTH);
+
+        return switch (DF) {
+            case 4, 5, 11 -> SHORT_LENGTH;
+            case EXPECTED_DF, 18, 20, 21 -> LENGTH;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Gives the bits of the parity field of a message of the given downlink format that must be equal to
+     * the CRC24 of the bytes preceding it. The other bits are those of the interrogator identifier for
+     * the all-call replies (DF 11), or of the ICAO address of the sender for the surveillance replies
+     * (DF 4, 5, 20 and 21), whose parity field is the XOR of both.
+     *
+     * @param downLinkFormat the downlink format of a message
+     * @return the bits of the parity field that must be equal to the CRC24 of the bytes preceding it
+     */
+    public static int crcMask(int downLinkFormat) {
+        return switch (downLinkFormat) {
+            case 11 -> ALL_CALL_CRC_MASK;
+            case 4, 5, 20, 21 -> 0;
+            default -> CRC_MASK;
+        };
+    }
+
     /**
      * @param payload the ME attribute of a message
      * @return the type code of the ME attribute passed as an argument.
@@ -75,35 +144,90 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
         return Bits.extractUInt(payload, TYPECODE_START, TYPECODE_LENGTH);
     }
 
+    /**
+     * @param byte0 the first byte of a message
+     * @return the DF attribute stored in the given byte
+     */
+    public static int downLinkFormat(byte byte0) {
+        return Bits.extractUInt(byte0, DF_START, DF_LENGTH);
+    }
+
     /**
      * @return the DF attribute stored in its first byte
      */
     public int downLinkFormat() {
-        byte byte0 = (byte) this.bytes.byteAt(DF_INDEX);
-
-        return Bits.extractUInt(byte0, DF_START, DF_LENGTH);
+        return downLinkFormat((byte) this.bytes.byteAt(DF_INDEX));
     }
 
     /**
-     * @return the ICAO address of the sender of the message
+     * @return the ICAO address of the sender of the message, obtained from its parity field
+     * for the surveillance replies (DF 4, 5, 20 and 21)
      */
     public IcaoAddress icaoAddress() {
-        long address = this.bytes.bytesInRange(ICAO_START, ICAO_LENGTH);
+        return IcaoAddress.of(icaoAddressValue());
+    }
+
+    /**
+     * @return the ICAO address of the sender of the message, as a 24-bit value, obtained from its parity field
+     * for the surveillance replies (DF 4, 5, 20 and 21)
+     */
+    public int icaoAddressValue() {
+        if (crcMask(downLinkFormat()) != 0) return (int) this.bytes.bytesInRange(ICAO_START, ICAO_LENGTH);
 
-        return new IcaoAddress(HEX_FORMAT.toHexDigits(address, ICAO_SIZE));
+        int crc = 0;
+        int parityStart = this.bytes.size() - CRC_LENGTH;
+        for (int i = 0; i < parityStart; i++)
+            crc = CRC24.update(crc, (byte) this.bytes.byteAt(i));
+
+        return crc ^ (int) this.bytes.bytesInRange(parityStart, this.bytes.size());
     }
 
     /**
-     * @return the ME attribute of the message
+     * @return the ME attribute of the message, which must be an ADS-B message of LENGTH (14) bytes
      */
     public long payload() {
         return this.bytes.bytesInRange(PAYLOAD_START, PAYLOAD_LENGTH + 1);
     }
 
+    /**
+     * @return the strength of the signal of the message, in decibels relative to the largest power sample
+     * that can be computed from the samples of the AirSpy (dBFS), or NaN if it is unknown
+     */
+    public double rssi() {
+        return 10 * Math.log10(signalPower / FULL_SCALE_POWER);
+    }
+
+    /**
+     * @return the signal-to-noise ratio of the message, in decibels, or NaN if it is unknown
+     */
+    public double snr() {
+        return 10 * Math.log10(signalPower / noisePower);
+    }
+
     /**
      * @return the five most significant bits of its ME attribute.
      */
     public int typeCode() {
         return typeCode(this.payload());
     }
+
+    /**
+     * @param o the object to compare with the message
+     * @return true iff the given object is also a RawMessage with the same time stamp and bytes,
+     * whatever their powers
+     */
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof RawMessage that) && (that.timeStampNs == timeStampNs) && that.bytes.equals(bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(timeStampNs) + bytes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "RawMessage[timeStampNs=" + timeStampNs + ", bytes=" + bytes + "]";
+    }
 }
@@ -0,0 +1,153 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+
+/**
+ * Final class RawMessageView : represents a reusable view of a raw ADS-B message, whose bytes are those
+ * of an array owned by its creator and whose attributes are extracted as primitive values,
+ * so that a message can be examined without allocating anything.
+ * The view is overwritten by the next message, toRawMessage must be used to keep a message.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public final class RawMessageView {
+    private static final int ICAO_START = 1;
+    private static final int ICAO_END = 4;
+    private static final int PAYLOAD_START = 4;
+    private static final int PAYLOAD_END = 11;
+    private final static Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private final byte[] bytes;
+    private long timeStampNs;
+    private double signalPower = Double.NaN;
+    private double noisePower = Double.NaN;
+
+    /**
+     * RawMessageView's constructor.
+     *
+     * @param bytes the array containing the bytes of the messages, which is not copied
+     * @throws IllegalArgumentException if the array doesn't contain LENGTH (14) bytes
+     */
+    public RawMessageView(byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets the time stamp of the message currently contained in the array.
+     *
+     * @param timeStampNs the time stamp in nanoseconds
+     * @throws IllegalArgumentException if the timestamp is (strictly) negative
+     */
+    public void setTimeStampNs(long timeStampNs) {
+        Preconditions.checkArgument(timeStampNs >= 0);
+
+        this.timeStampNs = timeStampNs;
+    }
+
+    /**
+     * @return the time stamp of the message, in nanoseconds
+     */
+    public long timeStampNs() {
+        return timeStampNs;
+    }
+
+    /**
+     * Sets the powers measured on the message currently contained in the array.
+     *
+     * @param signalPower the mean power of the pulses of the message, or NaN if it is unknown
+     * @param noisePower  the mean power between the pulses of the message, or NaN if it is unknown
+     * @throws IllegalArgumentException if a power is negative
+     */
+    public void setPowers(double signalPower, double noisePower) {
+        Preconditions.checkArgument(!(signalPower < 0) && !(noisePower < 0));
+
+        this.signalPower = signalPower;
+        this.noisePower = noisePower;
+    }
+
+    /**
+     * @return the mean power of the pulses of the message, or NaN if it is unknown
+     */
+    public double signalPower() {
+        return signalPower;
+    }
+
+    /**
+     * @return the mean power between the pulses of the message, or NaN if it is unknown
+     */
+    public double noisePower() {
+        return noisePower;
+    }
+
+    /**
+     * @return the DF attribute stored in its first byte
+     */
+    public int downLinkFormat() {
+        return RawMessage.downLinkFormat(bytes[0]);
+    }
+
+    /**
+     * @param index the index of the byte, which isn't checked against the size of the message
+     * @return the unsigned value of the byte of the message at the given index
+     */
+    int byteAt(int index) {
+        return Byte.toUnsignedInt(bytes[index]);
+    }
+
+    /**
+     * @return the number of bytes of the message currently contained in the array, SHORT_LENGTH (7)
+     * for the short messages and LENGTH (14) otherwise
+     */
+    public int size() {
+        return (RawMessage.frameSize(bytes[0]) == RawMessage.SHORT_LENGTH) ? RawMessage.SHORT_LENGTH : RawMessage.LENGTH;
+    }
+
+    /**
+     * @return the ICAO address of the sender of the message, as a 24-bit value, obtained from its parity field
+     * for the surveillance replies (DF 4, 5, 20 and 21)
+     */
+    public int icaoAddressValue() {
+        if (RawMessage.crcMask(downLinkFormat()) != 0) return (int) bytesInRange(ICAO_START, ICAO_END);
+
+        int parityStart = size() - RawMessage.CRC_LENGTH;
+        int crc = 0;
+        for (int i = 0; i < parityStart; i++)
+            crc = CRC24.update(crc, bytes[i]);
+
+        return crc ^ (int) bytesInRange(parityStart, parityStart + RawMessage.CRC_LENGTH);
+    }
+
+    /**
+     * @return the ME attribute of the message, which must be an ADS-B message of LENGTH (14) bytes
+     */
+    public long payload() {
+        return bytesInRange(PAYLOAD_START, PAYLOAD_END);
+    }
+
+    /**
+     * @return the five most significant bits of its ME attribute.
+     */
+    public int typeCode() {
+        return RawMessage.typeCode(payload());
+    }
+
+    /**
+     * @return an immutable copy of the message, that isn't affected by the next messages
+     */
+    public RawMessage toRawMessage() {
+        return new RawMessage(timeStampNs, ByteString.wrap(bytes, 0, size()).copy(), signalPower, noisePower);
+    }
+
+    private long bytesInRange(int fromIndex, int toIndex) {
+        long value = 0;
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            value = (value << Byte.SIZE) | Byte.toUnsignedInt(bytes[i]);
+        }
+        return value;
+    }
+}
@@ -2,29 +2,102 @@ package ch.epfl.javions.aircraft;
 
 import ch.epfl.javions.Preconditions;
 
+import java.util.HexFormat;
 import java.util.regex.Pattern;
 
 /**
- * Record IcaoAddress : represents an Icao address.
- *
- * @param string : the string representing the Icao address.
+ * Final class IcaoAddress : represents an Icao address, stored as its 24-bit value, its string of six
+ * hexadecimal digits being only computed when needed.
+ * The addresses obtained from their value are interned : the same object is returned for the same value
+ * as long as no other address takes its place in the cache, so that each aircraft tracked usually
+ * has a single address object, whose hash and comparisons only use its value.
  *
  * @author Yshai  (356356)
  * @author Gabriel Taieb (360560)
  */
-public record IcaoAddress(String string) {
+public final class IcaoAddress {
     /**
      * Pattern of an ICAO address.
      */
     private static final Pattern OACI_Pattern = Pattern.compile("[0-9A-F]{6}");
+    private static final int ICAO_SIZE = 6;
+    private static final int ADDRESS_BITS = 24;
+    private static final int CACHE_BITS = 16;
+    private static final int CACHE_MASK = (1 << CACHE_BITS) - 1;
+    private static final HexFormat HEX_FORMAT = HexFormat.of().withUpperCase();
+    private static final IcaoAddress[] CACHE = new IcaoAddress[1 << CACHE_BITS];
+    private final int value;
+    private String string;
 
     /**
-     * Compact constructor : validates the string given in argument, checks if it corresponds to an ICAO pattern
+     * IcaoAddress's constructor : validates the string given in argument, checks if it corresponds to an ICAO pattern
      *
+     * @param string : the string representing the Icao address.
      * @throws IllegalArgumentException if it doesn't match with the pattern
      */
-    public IcaoAddress {
+    public IcaoAddress(String string) {
         Preconditions.checkArgument(OACI_Pattern.matcher(string).matches());
+
+        this.value = HexFormat.fromHexDigits(string);
+        this.string = string;
+    }
+
+    private IcaoAddress(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the address of the given value, reusing the one returned for the last call with this value
+     * if it is still cached. The cache is shared by all the threads : its slots may be overwritten concurrently,
+     * which at worst creates an address twice, since the addresses are immutable once published.
+     *
+     * @param value the 24-bit value of the address
+     * @return the address of the given value
+     * @throws IllegalArgumentException if the value doesn't fit in 24 bits
+     */
+    public static IcaoAddress of(int value) {
+        Preconditions.checkArgument((value >>> ADDRESS_BITS) == 0);
+
+        int slot = (value ^ (value >>> CACHE_BITS)) & CACHE_MASK;
+        IcaoAddress cached = CACHE[slot];
+        if (cached != null && cached.value == value) return cached;
+
+        IcaoAddress address = new IcaoAddress(value);
+        CACHE[slot] = address;
+        return address;
+    }
+
+    /**
+     * @return the 24-bit value of the address
+     */
+    public int value() {
+        return value;
+    }
+
+    /**
+     * @return the string representing the Icao address, made of six uppercase hexadecimal digits
+     */
+    public String string() {
+        String s = string;
+        if (s == null) {
+            s = HEX_FORMAT.toHexDigits(value, ICAO_SIZE);
+            string = s;
+        }
+        return s;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof IcaoAddress that) && (that.value == value);
     }
 
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "IcaoAddress[string=" + string() + "]";
+    }
 }
@@ -1,32 +1,56 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.CrcErrorCorrector;
 import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageView;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
- * Final class AdsbDemodulator : represents a demodulator for ADS-B messages.
+ * Final class AdsbDemodulator : represents a demodulator for ADS-B messages, and optionally for the other
+ * Mode S messages whose downlink format is known to RawMessage.
+ * The surveillance replies, whose parity field is combined with the ICAO address of their sender, are only
+ * accepted when this address has been seen during the last minute in a message whose parity checks all
+ * the bits of its CRC24 : an ADS-B message that hasn't been corrected, or an all-call reply to an interrogator
+ * whose identifier is 0.
  *
  * @author Yshai  (356356)
  * @author Gabriel Taieb (360560)
  */
-public final class AdsbDemodulator {
+public final class AdsbDemodulator implements AutoCloseable {
     public static final int TIME_FACTOR = 100;
-    private static final int WINDOWSIZE = 1200;
-    private static final int INDEXPEAK2 = 10;
-    private static final int INDEXPEAK3 = 35;
-    private static final int INDEXPEAK4 = 45;
-    private static final int INDEXVALLEYS1 = 5;
-    private static final int INDEXVALLEYS2 = 15;
-    private static final int INDEXVALLEYS3 = 20;
-    private static final int INDEXVALLEYS4 = 25;
-    private static final int INDEXVALLEYS5 = 30;
-    private static final int INDEXVALLEYS6 = 40;
-    private static final int PREAMBLE_SIZE = 80;
-    private static final int PERIOD = 5;
-    private static final byte[] message = new byte[RawMessage.LENGTH];
+    static final int WINDOWSIZE = 1200;
+    static final int PREAMBLE_PEAKS = 4;
+    private static final int AIRSPY_SAMPLE_RATE = 10_000_000;
+    private static final int NOISE_BLOCK_SIZE = 128;
+    private static final double NOISE_SMOOTHING = 1d / 32;
+    private static final int ICAO_START = 1;
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private final byte[] message = new byte[RawMessage.LENGTH];
+    private final RawMessageView messageView = new RawMessageView(message);
     private final PowerWindow powerWindow;
+    private final SampleTiming timing;
+    private final int[] pulseOffsets;
+    private final int[] gapOffsets;
+    private final PreambleScanner preambleScanner;
+    private final int[] windowSamples;
+    private volatile long progressNs;
+    private CrcErrorCorrector errorCorrector;
+    private final RecentAddresses recentAddresses = new RecentAddresses();
+    private boolean allDownLinkFormats;
+    private int maxPhaseShift;
+    private double minimumPreambleRatio;
+    private double noiseFloor = Double.NaN;
+    private int previousPeak;
+    private int phase;
+    private int[] samples;
+    private int samplesOffset;
 
     /**
      * return a demodulator obtaining the bytes containing the samples of the stream passed in argument
@@ -36,69 +60,435 @@ public final class AdsbDemodulator {
      *                     representing the 1200 power sample window, used to search for messages.
      */
     public AdsbDemodulator(InputStream samplesStream) throws IOException {
-        powerWindow = new PowerWindow(samplesStream, WINDOWSIZE);
+        this(new PowerWindow(samplesStream, WINDOWSIZE));
     }
 
     /**
-     * @return the next ADS-B message in the sample stream passed to the constructor,
-     * or null if the end of the sample stream has been reached
+     * return a demodulator searching for messages in the given window.
+     *
+     * @param powerWindow the window of 1200 power samples used to search for messages
+     */
+    AdsbDemodulator(PowerWindow powerWindow) {
+        this(powerWindow, SampleTiming.AIRSPY);
+    }
+
+    /**
+     * return a demodulator searching for messages in the given window, whose power samples have the given timing.
+     *
+     * @param powerWindow the window of power samples used to search for messages, of the size given by the timing
+     * @param timing      the timing of the power samples of the window
+     * @throws IllegalArgumentException if the size of the window is not the one given by the timing
+     */
+    AdsbDemodulator(PowerWindow powerWindow, SampleTiming timing) {
+        Preconditions.checkArgument(powerWindow.size() == timing.windowSize());
+
+        this.powerWindow = powerWindow;
+        this.timing = timing;
+        pulseOffsets = timing.pulseOffsets();
+        gapOffsets = timing.gapOffsets();
+        preambleScanner = new PreambleScanner(timing, timing.windowSize());
+        windowSamples = new int[timing.windowSize()];
+    }
+
+    /**
+     * Returns a pipelined demodulator obtaining the bytes containing the samples of the stream passed in argument.
+     * The bytes are read and the power samples computed by two threads of their own, the messages being searched
+     * on the thread calling nextMessage, so that each stage can run on a different core.
+     * The demodulator must be closed if it is abandoned before the end of the stream, to stop its threads.
+     *
+     * @param samplesStream the samples of the stream that are used to build a demodulator
+     * @return a demodulator whose stages run on different threads
+     * @throws IOException if an input/output error occurs when reading the first power samples
+     */
+    public static AdsbDemodulator pipelined(InputStream samplesStream) throws IOException {
+        return new AdsbDemodulator(
+                new PowerWindow(new PowerPipeline(samplesStream, PowerWindow.BATCH_SIZE), WINDOWSIZE));
+    }
+
+    /**
+     * Returns a demodulator reading the samples of the given recorded sample file, mapped in memory
+     * instead of being copied through buffers.
+     *
+     * @param samplesFile the file containing the bytes of the samples, as produced by the AirSpy
+     * @return a demodulator reading the given file
+     * @throws IOException if an input/output error occurs when mapping the file or reading the first power samples
+     */
+    public static AdsbDemodulator ofSamplesFile(Path samplesFile) throws IOException {
+        try (FileChannel file = FileChannel.open(samplesFile, StandardOpenOption.READ)) {
+            MappedSamplesSource source = new MappedSamplesSource(file, 0, file.size(), 2 * PowerWindow.BATCH_SIZE);
+            return new AdsbDemodulator(
+                    new PowerWindow(new PowerComputer(source, PowerWindow.BATCH_SIZE), WINDOWSIZE));
+        }
+    }
+
+    /**
+     * Returns a demodulator obtaining the bytes containing the samples of the AirSpy from the given stream,
+     * and searching for messages in power samples averaged over groups of the given number of power samples.
+     * Decimating by n divides the work of the demodulator by about n, at the cost
+     * of the weakest messages and of the precision of the time stamps.
+     *
+     * @param samplesStream the samples of the stream that are used to build a demodulator
+     * @param decimation    the number of power samples averaged into one, between 1 and 5
+     * @return a demodulator working on 10 / decimation million power samples per second
+     * @throws IOException              if an input/output error occurs when reading the first power samples
+     * @throws IllegalArgumentException if the decimation is not between 1 and 5
+     */
+    public static AdsbDemodulator decimated(InputStream samplesStream, int decimation) throws IOException {
+        SampleTiming timing = new SampleTiming(AIRSPY_SAMPLE_RATE, decimation);
+        PowerSource source = new PowerComputer(samplesStream, PowerWindow.BATCH_SIZE);
+
+        return ofPowerSource(source, timing, decimation);
+    }
+
+    /**
+     * Returns a demodulator obtaining from the given stream interleaved I/Q samples of 8 unsigned bits,
+     * such as the ones recorded by the RTL-SDR receivers, taken at the given rate.
+     * The powers of the samples are averaged over groups of the given number of samples when the rate
+     * is higher than needed, which divides the work of the demodulator by about the same factor.
+     *
+     * @param iqStream   the stream of the I/Q samples, the in-phase value of each sample coming first
+     * @param sampleRate the number of I/Q samples per second
+     * @param decimation the number of power samples averaged into one
+     * @return a demodulator searching for messages in the given stream
+     * @throws IOException              if an input/output error occurs when reading the first power samples
+     * @throws IllegalArgumentException if the decimation is not positive, or if the decimated rate is less
+     *                                  than 2 MS/s
+     */
+    public static AdsbDemodulator ofIqSamples(InputStream iqStream, int sampleRate, int decimation)
+            throws IOException {
+        SampleTiming timing = new SampleTiming(sampleRate, decimation);
+        PowerSource source = new IqPowerComputer(iqStream, PowerWindow.BATCH_SIZE);
+
+        return ofPowerSource(source, timing, decimation);
+    }
+
+    private static AdsbDemodulator ofPowerSource(PowerSource source, SampleTiming timing, int decimation)
+            throws IOException {
+        if (decimation > 1) source = new DecimatingPowerSource(source, decimation, PowerWindow.BATCH_SIZE);
+
+        return new AdsbDemodulator(new PowerWindow(source, timing.windowSize()), timing);
+    }
+
+    /**
+     * Makes the demodulator repair the ADS-B messages (DF 17) whose CRC24 is not 0 with the given corrector,
+     * whose counters then give the number of messages corrected and rejected. The other downlink formats are
+     * never corrected. Correction is disabled by default, and when the given corrector is null.
+     *
+     * @param errorCorrector the corrector used to repair the messages, or null
+     */
+    public void setErrorCorrector(CrcErrorCorrector errorCorrector) {
+        this.errorCorrector = errorCorrector;
+    }
+
+    /**
+     * Makes the demodulator also return the Mode S messages of the other downlink formats known to RawMessage,
+     * short messages included. Disabled by default, only the ADS-B messages (DF 17) being then returned.
+     *
+     * @param allDownLinkFormats true to return the messages of all the known downlink formats
+     */
+    public void setAllDownLinkFormats(boolean allDownLinkFormats) {
+        this.allDownLinkFormats = allDownLinkFormats;
+    }
+
+    /**
+     * Makes the demodulator retry the decoding of the messages whose parity is invalid by sampling their bits
+     * up to the given number of power samples before and after the expected ones, so that the messages
+     * whose preamble falls between two samples are decoded at the phase that validates them.
+     * Each preamble whose message is invalid then costs at most 2 * maxPhaseShift more decodings,
+     * most of which stop at the downlink format. Disabled (0) by default.
+     *
+     * The shift is limited to 2 samples, and to none when the samples of the longest messages fill their window,
+     * as with the samples of less than 2.5 MS/s.
+     *
+     * @param maxPhaseShift the maximum shift of the samples of the bits, between 0 and 2
+     * @throws IllegalArgumentException if the maximum shift is negative or too large for the rate of the samples
+     */
+    public void setMaxPhaseShift(int maxPhaseShift) {
+        Preconditions.checkArgument(maxPhaseShift >= 0 && maxPhaseShift <= timing.maxPhaseShift());
+
+        this.maxPhaseShift = maxPhaseShift;
+    }
+
+    /**
+     * Makes the demodulator ignore the preambles whose mean peak power is less than the given number of decibels
+     * above the noise floor, which trades the weakest messages for fewer decodings of noise.
+     * Disabled by default, and when the given threshold is negative infinity.
+     *
+     * @param decibels the smallest ratio, in decibels, of the mean peak power of a preamble to the noise floor
+     * @throws IllegalArgumentException if the threshold is NaN
+     */
+    public void setPreambleThreshold(double decibels) {
+        Preconditions.checkArgument(!Double.isNaN(decibels));
+
+        minimumPreambleRatio = Math.pow(10, decibels / 10);
+    }
+
+    /**
+     * The noise floor is the mean power of the quietest slices of the recent windows, smoothed over time,
+     * so that the messages barely affect it.
+     *
+     * @return the current estimate of the power of the noise, in the unit of the power samples,
+     * or NaN if no window has been examined yet
+     */
+    public double noiseFloor() {
+        return noiseFloor;
+    }
+
+    /**
+     * @return the next ADS-B message, or Mode S message if all the downlink formats are enabled, in the sample
+     * stream passed to the constructor, or null if the end of the sample stream has been reached
      * @throws IOException in case of an input/output error.
      */
     public RawMessage nextMessage() throws IOException {
-        int peak0 = 0;
-        int peakPlus1;
-        int peakMinus1;
+        RawMessageView view = nextMessageView();
 
-        while (powerWindow.isFull()) {
-            peakMinus1 = peak0;
-            peak0 = sumPeaks(0);
-            peakPlus1 = sumPeaks(1);
+        return (view == null) ? null : view.toRawMessage();
+    }
 
-            if (isPreamble(peakMinus1, peak0, peakPlus1)) {
-                message[0] = byteI(0);
+    /**
+     * Searches the next message without allocating anything, the message being placed in a view
+     * owned by the demodulator and overwritten by the next call.
+     *
+     * @return the view of the next ADS-B message, or Mode S message if all the downlink formats are enabled,
+     * in the sample stream passed to the constructor,
+     * or null if the end of the sample stream has been reached
+     * @throws IOException in case of an input/output error.
+     */
+    public RawMessageView nextMessageView() throws IOException {
+        while (powerWindow.isFull()) {
+            progressNs = timing.timeStampNs(powerWindow.position());
+            powerWindow.copyTo(windowSamples);
+            updateNoiseFloor();
+            preambleScanner.scan(windowSamples);
 
-                if (!dfIsOk(message[0])) {
-                    powerWindow.advance();
-                    continue;
-                }
+            int scanned = 0;
+            int candidate;
 
-                for (int i = 1; i < RawMessage.LENGTH; i++) {
-                    message[i] = byteI(i);
-                }
+            while ((candidate = preambleScanner.nextCandidate(scanned, previousPeak)) >= 0) {
+                powerWindow.advanceBy(candidate - scanned);
+                if (!powerWindow.isFull()) return null;
 
-                long timeStamp = powerWindow.position() * TIME_FACTOR;
-                RawMessage maybeMessage = RawMessage.of(timeStamp, message);
+                samples = powerWindow.samples();
+                samplesOffset = powerWindow.samplesOffset();
 
-                if (maybeMessage != null) {
-                    powerWindow.advanceBy(WINDOWSIZE);
-                    return maybeMessage;
+                int size = decodeMessage();
+                if (size == 0 && maxPhaseShift != 0) size = decodeShiftedMessage();
+                if (size != 0) {
+                    messageView.setTimeStampNs(messageTimeStampNs());
+                    measurePowers(size);
+                    powerWindow.advanceBy(phase + timing.frameDuration(size));
+                    phase = 0;
+                    previousPeak = 0;
+                    return messageView;
                 }
+
+                previousPeak = preambleScanner.peakAt(candidate);
+                powerWindow.advance();
+                scanned = candidate + 1;
             }
-            powerWindow.advance();
+
+            previousPeak = preambleScanner.peakAt(preambleScanner.positions() - 1);
+            powerWindow.advanceBy(preambleScanner.positions() - scanned);
         }
         return null;
     }
 
-    private boolean isPreamble(int peakMinus1, int peak0, int peakPlus1) {
-        boolean condition1 = peak0 >= 2 * sumValleys();
-        boolean condition2 = peakMinus1 < peak0;
-        boolean condition3 = peak0 > peakPlus1;
+    /**
+     * Stops the threads of a pipelined demodulator and closes its stream. Does nothing for the other
+     * demodulators, whose stream is left to their creator. The demodulator must not be used any more.
+     *
+     * @throws IOException in case of input/output error when closing the stream
+     */
+    @Override
+    public void close() throws IOException {
+        powerWindow.close();
+    }
 
-        return condition1 && condition2 && condition3;
+    /**
+     * Passes the current position of the window as one where no message starts, so that the next position
+     * is examined exactly as it would be by a demodulator that examined this one, without finding a message.
+     * Must be called before searching for messages.
+     *
+     * @throws IOException in case of an input/output error.
+     */
+    void skipPosition() throws IOException {
+        previousPeak = 0;
+        for (int i = 0; i < PREAMBLE_PEAKS; i++) {
+            previousPeak += powerWindow.get(timing.peak(i));
+        }
+        powerWindow.advance();
     }
 
-    private int sumPeaks(int i) {
-        return powerWindow.get(i) + powerWindow.get(INDEXPEAK2 + i) + powerWindow.get(INDEXPEAK3 + i) + powerWindow.get(INDEXPEAK4 + i);
+    /**
+     * Records that the given address has been seen at the given time, as if it had been seen in a message
+     * whose parity checks all the bits of its CRC24, so that the surveillance replies of this address are accepted.
+     *
+     * @param address     the 24-bit value of the address
+     * @param timeStampNs the time stamp at which the address has been seen, in nanoseconds
+     */
+    void learnAddress(int address, long timeStampNs) {
+        recentAddresses.add(address, timeStampNs);
     }
 
-    private int sumValleys() {
-        return powerWindow.get(INDEXVALLEYS1) + powerWindow.get(INDEXVALLEYS2) + powerWindow.get(INDEXVALLEYS3)
-                + powerWindow.get(INDEXVALLEYS4) + powerWindow.get(INDEXVALLEYS5) + powerWindow.get(INDEXVALLEYS6);
+    /**
+     * @param message a message
+     * @return true iff the message is one from which a demodulator learns the address of its sender, i.e. whose
+     * parity checks all the bits of its CRC24
+     */
+    static boolean checksAddress(RawMessage message) {
+        if (RawMessage.crcMask(message.downLinkFormat()) == 0) return false;
+
+        int crc = 0;
+        for (int i = 0; i < message.bytes().size(); i++) {
+            crc = CRC24.update(crc, (byte) message.bytes().byteAt(i));
+        }
+        return crc == 0;
+    }
+
+    /**
+     * Can be called from another thread than the one searching for messages.
+     *
+     * @return a time stamp, in nanoseconds, such that all the messages older than it have already been returned
+     */
+    long progressNs() {
+        return progressNs;
+    }
+
+    /**
+     * Updates the noise floor with the mean power of the quietest slice of the current window, and the smallest
+     * peak sum of the preambles accordingly.
+     */
+    private void updateNoiseFloor() {
+        long quietestSum = Long.MAX_VALUE;
+
+        for (int start = 0; start + NOISE_BLOCK_SIZE <= windowSamples.length; start += NOISE_BLOCK_SIZE) {
+            long sum = 0;
+            for (int k = start; k < start + NOISE_BLOCK_SIZE; k++) {
+                sum += windowSamples[k];
+            }
+            quietestSum = Math.min(quietestSum, sum);
+        }
+
+        double windowFloor = (double) quietestSum / NOISE_BLOCK_SIZE;
+        noiseFloor = Double.isNaN(noiseFloor) ? windowFloor : noiseFloor + (windowFloor - noiseFloor) * NOISE_SMOOTHING;
+
+        preambleScanner.setMinimumPeak((int) Math.min(Integer.MAX_VALUE,
+                Math.ceil(PREAMBLE_PEAKS * minimumPreambleRatio * noiseFloor)));
+    }
+
+    /**
+     * Gives to the view the mean powers of the halves of the bits of the decoded message with and without pulse.
+     *
+     * @param size the size of the decoded message, in bytes
+     */
+    private void measurePowers(int size) {
+        long signal = 0;
+        long noise = 0;
+
+        for (int i = 0; i < size * Byte.SIZE; i++) {
+            int first = samples[samplesOffset + phase + pulseOffsets[i]];
+            int second = samples[samplesOffset + phase + gapOffsets[i]];
+            boolean one = ((message[i / Byte.SIZE] >> (Byte.SIZE - 1 - i % Byte.SIZE)) & 1) == 1;
+
+            signal += one ? first : second;
+            noise += one ? second : first;
+        }
+
+        messageView.setPowers((double) signal / (size * Byte.SIZE), (double) noise / (size * Byte.SIZE));
+    }
+
+    /**
+     * Decodes the message starting at the current position of the window, once a preamble has been found there.
+     * Unless the messages are corrected, which only applies to the ADS-B messages (DF 17), the CRC24 of the
+     * data bytes is computed while they are decoded, and the decoding stops at the first parity byte whose
+     * checked bits differ from it.
+     * The addresses are only learned from the messages whose parity checks all the bits of the CRC24, and
+     * that haven't been corrected, since the others may come from noise.
+     *
+     * @return the size of the decoded message, or 0 if its downlink format or its parity, once corrected
+     * if enabled, is invalid
+     */
+    private int decodeMessage() {
+        message[0] = byteI(0);
+
+        int size = allDownLinkFormats ? RawMessage.frameSize(message[0]) : RawMessage.size(message[0]);
+        if (size == 0) return 0;
+
+        int crcMask = RawMessage.crcMask(RawMessage.downLinkFormat(message[0]));
+
+        if (errorCorrector != null && RawMessage.size(message[0]) == RawMessage.LENGTH) {
+            for (int i = 1; i < RawMessage.LENGTH; i++) {
+                message[i] = byteI(i);
+            }
+
+            long correctedCount = errorCorrector.correctedCount();
+            if (!errorCorrector.correct(message)) return 0;
+            if (errorCorrector.correctedCount() == correctedCount) learnSenderAddress();
+            return size;
+        }
+
+        int parityStart = size - RawMessage.CRC_LENGTH;
+        int crc = CRC24.update(0, message[0]);
+        for (int i = 1; i < parityStart; i++) {
+            message[i] = byteI(i);
+            crc = CRC24.update(crc, message[i]);
+        }
+
+        int syndrome = 0;
+        for (int i = parityStart; i < size; i++) {
+            message[i] = byteI(i);
+            int shift = Byte.SIZE * (size - 1 - i);
+            int difference = Byte.toUnsignedInt((byte) (message[i] ^ (crc >>> shift)));
+            if ((difference & (crcMask >>> shift)) != 0) return 0;
+            syndrome = (syndrome << Byte.SIZE) | difference;
+        }
+
+        if (crcMask == 0) return recentAddresses.contains(syndrome, messageTimeStampNs()) ? size : 0;
+
+        if (syndrome == 0) learnSenderAddress();
+        return size;
+    }
+
+    private void learnSenderAddress() {
+        if (allDownLinkFormats) recentAddresses.add(icaoAddress(), messageTimeStampNs());
+    }
+
+    private long messageTimeStampNs() {
+        return timing.timeStampNs(powerWindow.position() + phase);
+    }
+
+    /**
+     * Decodes the message starting at the current position of the window by sampling its bits at the phases
+     * closest to the expected one first, until one of them gives a valid message.
+     *
+     * @return the size of the decoded message, the phase being left at the one that validated it,
+     * or 0 if no phase gives a valid message
+     */
+    private int decodeShiftedMessage() {
+        for (int shift = 1; shift <= maxPhaseShift; shift++) {
+            for (int sign = 1; sign >= -1; sign -= 2) {
+                phase = sign * shift;
+                if (powerWindow.position() + phase < 0) continue;
+
+                int size = decodeMessage();
+                if (size != 0) return size;
+            }
+        }
+        phase = 0;
+
+        return 0;
+    }
+
+    private int icaoAddress() {
+        return (Byte.toUnsignedInt(message[ICAO_START]) << 16)
+                | (Byte.toUnsignedInt(message[ICAO_START + 1]) << 8)
+                | Byte.toUnsignedInt(message[ICAO_START + 2]);
     }
 
     private byte bitI(int i) {
-        return (byte) (powerWindow.get(PREAMBLE_SIZE + (2 * PERIOD) * i)
-                < powerWindow.get((PREAMBLE_SIZE + PERIOD) + (2 * PERIOD) * i) ? 0 : 1);
+        int start = samplesOffset + phase;
+
+        return (byte) (samples[start + pulseOffsets[i]] < samples[start + gapOffsets[i]] ? 0 : 1);
     }
 
     private byte byteI(int j) {
@@ -109,8 +499,4 @@ public final class AdsbDemodulator {
 
         return b;
     }
-
-    private boolean dfIsOk(byte byte0) {
-        return RawMessage.size(byte0) == RawMessage.LENGTH;
-    }
 }
@@ -0,0 +1,130 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Final class BatchRing : represents a bounded ring of reusable batches, passed without locking
+ * from a single producer thread to a single consumer thread.
+ * The producer fills the free batches and publishes them, the consumer reads the published batches
+ * and releases them, both waiting when the ring is respectively full or empty.
+ * A thread interrupted while it waits stops waiting, by throwing an InterruptedIOException.
+ *
+ * @param <T> the type of the batches
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class BatchRing<T> {
+    private static final long WAIT_NANOS = 100_000;
+    private final T[] batches;
+    private final int[] sizes;
+    private volatile long published;
+    private volatile long released;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * BatchRing's constructor.
+     *
+     * @param capacity     the number of batches of the ring
+     * @param batchFactory the factory creating the batches, once and for all
+     * @throws IllegalArgumentException if the capacity isn't strictly positive
+     */
+    @SuppressWarnings("unchecked")
+    BatchRing(int capacity, Supplier<T> batchFactory) {
+        Preconditions.checkArgument(capacity > 0);
+
+        batches = (T[]) new Object[capacity];
+        sizes = new int[capacity];
+        for (int i = 0; i < capacity; i++) batches[i] = batchFactory.get();
+    }
+
+    /**
+     * Waits until a batch is free, to be filled by the producer.
+     *
+     * @return the next free batch
+     * @throws InterruptedIOException if the producer thread is interrupted while waiting
+     */
+    T nextFree() throws InterruptedIOException {
+        while (published - released == batches.length) {
+            LockSupport.parkNanos(WAIT_NANOS);
+            checkInterrupted();
+        }
+
+        return batches[slot(published)];
+    }
+
+    /**
+     * Hands the batch returned by nextFree over to the consumer.
+     *
+     * @param size the number of elements placed in the batch
+     */
+    void publish(int size) {
+        sizes[slot(published)] = size;
+        published++;
+    }
+
+    /**
+     * Indicates that the producer won't publish any more batches.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Indicates that the producer stopped because of the given error, thrown to the consumer
+     * once it has read all the published batches.
+     *
+     * @param e the error that stopped the producer
+     */
+    void fail(IOException e) {
+        failure = e;
+        closed = true;
+    }
+
+    /**
+     * Waits until a batch has been published, the same batch being returned until it is released.
+     *
+     * @return the next published batch, or null if the producer closed the ring and all its batches have been read
+     * @throws IOException if the producer stopped because of an input/output error, or InterruptedIOException
+     *                     if the consumer thread is interrupted while waiting
+     */
+    T nextFull() throws IOException {
+        while (released == published) {
+            if (closed && (released == published)) {
+                if (failure != null) throw failure;
+                return null;
+            }
+            LockSupport.parkNanos(WAIT_NANOS);
+            checkInterrupted();
+        }
+
+        return batches[slot(released)];
+    }
+
+    /**
+     * @return the number of elements of the batch returned by nextFull
+     */
+    int size() {
+        return sizes[slot(released)];
+    }
+
+    /**
+     * Gives the batch returned by nextFull back to the producer.
+     */
+    void release() {
+        released++;
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.interrupted()) throw new InterruptedIOException();
+    }
+
+    private int slot(long index) {
+        return (int) (index % batches.length);
+    }
+}
@@ -0,0 +1,275 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Final class ChunkedDemodulator : demodulates a recorded sample file by splitting it into chunks
+ * that are mapped in memory and demodulated in parallel, on the common fork-join pool.
+ * Each chunk overlaps the next one by a window, so that the messages starting at the end of a chunk are
+ * entirely decoded by it.
+ * The messages are the ones a single demodulator finds in the file : a chunk is demodulated as if no message
+ * covered its beginning, and it is demodulated again, sequentially, from the end of the message
+ * covering its beginning otherwise, until both demodulations find the same message.
+ * The demodulators have the default settings, with which the noise floor, that isn't carried from a chunk
+ * to the next, has no effect.
+ * When all the downlink formats are demodulated, the demodulator of each chunk is given the addresses
+ * seen during the minute preceding the chunk by a first demodulation of the chunks, so that it accepts
+ * the surveillance replies of these addresses. A surveillance reply may then only differ from the ones
+ * found by a single demodulator in the rare case where this first demodulation found a message checking
+ * an address that a single demodulator doesn't find, or the other way round, near the beginning of a chunk.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public final class ChunkedDemodulator {
+    private static final int CHUNK_SIZE = 1 << 22;
+    private static final int BYTES_PER_POWER_SAMPLE = 2 * Short.BYTES;
+    private static final int WARM_UP = 3;
+    private final FileChannel file;
+    private final int chunkSize;
+    private final int chunksCount;
+    private final boolean allDownLinkFormats;
+
+    private ChunkedDemodulator(FileChannel file, int chunkSize, boolean allDownLinkFormats) throws IOException {
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.allDownLinkFormats = allDownLinkFormats;
+
+        long powerSamplesCount = file.size() / BYTES_PER_POWER_SAMPLE;
+        chunksCount = (int) ((powerSamplesCount + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Demodulates all the ADS-B messages of the given sample file.
+     *
+     * @param samplesFile the file containing the bytes of the samples, as produced by the AirSpy
+     * @return the messages of the file, in increasing order of time stamp
+     * @throws IOException in case of input/output error
+     */
+    public static List<RawMessage> demodulate(Path samplesFile) throws IOException {
+        return demodulate(samplesFile, false);
+    }
+
+    /**
+     * Demodulates all the ADS-B messages of the given sample file, or all its Mode S messages
+     * of the downlink formats known to RawMessage.
+     *
+     * @param samplesFile        the file containing the bytes of the samples, as produced by the AirSpy
+     * @param allDownLinkFormats true to demodulate the messages of all the known downlink formats
+     * @return the messages of the file, in increasing order of time stamp
+     * @throws IOException in case of input/output error
+     */
+    public static List<RawMessage> demodulate(Path samplesFile, boolean allDownLinkFormats) throws IOException {
+        return demodulate(samplesFile, allDownLinkFormats, CHUNK_SIZE);
+    }
+
+    /**
+     * Demodulates all the messages of the given sample file, split into chunks of the given number of power samples.
+     *
+     * @param samplesFile        the file containing the bytes of the samples, as produced by the AirSpy
+     * @param allDownLinkFormats true to demodulate the messages of all the known downlink formats
+     * @param chunkSize          the number of power samples of a chunk
+     * @return the messages of the file, in increasing order of time stamp
+     * @throws IOException              in case of input/output error
+     * @throws IllegalArgumentException if the size of the chunks isn't strictly positive
+     */
+    static List<RawMessage> demodulate(Path samplesFile, boolean allDownLinkFormats, int chunkSize)
+            throws IOException {
+        Preconditions.checkArgument(chunkSize > 0);
+
+        try (FileChannel file = FileChannel.open(samplesFile, StandardOpenOption.READ)) {
+            return new ChunkedDemodulator(file, chunkSize, allDownLinkFormats).demodulate();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private List<RawMessage> demodulate() {
+        List<List<RawMessage>> seeds = allDownLinkFormats ? seeds(demodulateChunks(null)) : null;
+        List<List<RawMessage>> chunksMessages = demodulateChunks(seeds);
+
+        List<RawMessage> messages = new ArrayList<>();
+        Map<Integer, RawMessage> addressMessages = new HashMap<>();
+        long resumePosition = 0;
+
+        for (int i = 0; i < chunksCount; i++) {
+            long start = (long) i * chunkSize;
+            List<RawMessage> chunkMessages = chunksMessages.get(i);
+
+            if (i > 0 && resumePosition >= start) {
+                List<RawMessage> seed = recentMessages(addressMessages, resumePosition * AdsbDemodulator.TIME_FACTOR);
+                chunkMessages = resynchronized(resumePosition, start + chunkSize, seed, chunkMessages);
+            }
+
+            for (RawMessage message : chunkMessages) {
+                messages.add(message);
+                if (allDownLinkFormats && AdsbDemodulator.checksAddress(message))
+                    addressMessages.put(message.icaoAddressValue(), message);
+            }
+            if (!chunkMessages.isEmpty()) resumePosition = endPosition(chunkMessages.get(chunkMessages.size() - 1));
+        }
+        return messages;
+    }
+
+    /**
+     * Demodulates the chunks in parallel.
+     *
+     * @param seeds the messages giving the addresses known at the beginning of each chunk, or null if there is none
+     * @return the messages of each chunk
+     * @throws UncheckedIOException in case of input/output error
+     */
+    private List<List<RawMessage>> demodulateChunks(List<List<RawMessage>> seeds) {
+        return IntStream.range(0, chunksCount)
+                .parallel()
+                .mapToObj(i -> demodulate((long) i * chunkSize, (long) (i + 1) * chunkSize, i > 0,
+                        (seeds == null) ? List.of() : seeds.get(i)))
+                .toList();
+    }
+
+    /**
+     * @param chunksMessages the messages of each chunk, found by a first demodulation
+     * @return for each chunk, the last messages checking the addresses seen during the minute preceding it
+     */
+    private List<List<RawMessage>> seeds(List<List<RawMessage>> chunksMessages) {
+        List<List<RawMessage>> seeds = new ArrayList<>();
+        Map<Integer, RawMessage> addressMessages = new HashMap<>();
+
+        for (int i = 0; i < chunksCount; i++) {
+            seeds.add(recentMessages(addressMessages, (long) i * chunkSize * AdsbDemodulator.TIME_FACTOR));
+
+            for (RawMessage message : chunksMessages.get(i)) {
+                if (AdsbDemodulator.checksAddress(message)) addressMessages.put(message.icaoAddressValue(), message);
+            }
+        }
+        return seeds;
+    }
+
+    /**
+     * @param addressMessages the last message checking each address
+     * @param timeStampNs     the current time stamp, in nanoseconds
+     * @return the messages checking the addresses that are still known at the given time stamp, from the oldest
+     */
+    private static List<RawMessage> recentMessages(Map<Integer, RawMessage> addressMessages, long timeStampNs) {
+        return addressMessages.values().stream()
+                .filter(m -> m.timeStampNs() < timeStampNs && timeStampNs - m.timeStampNs() <= RecentAddresses.EXPIRY_NS)
+                .sorted(Comparator.comparingLong(RawMessage::timeStampNs))
+                .toList();
+    }
+
+    /**
+     * Demodulates the messages starting between the given power samples, from the end of the message
+     * covering the beginning of a chunk, until a message found by the demodulation of the chunk is found again.
+     * Both demodulations being then in the same state, the following messages are the ones of the chunk.
+     *
+     * @param resumePosition the index of the power sample following the message covering the beginning of the chunk
+     * @param end            the index of the power sample following the chunk
+     * @param seed           the messages giving the addresses known at the end of the message covering the chunk
+     * @param chunkMessages  the messages found by the demodulation of the chunk
+     * @return the messages starting between the given power samples
+     * @throws UncheckedIOException in case of input/output error
+     */
+    private List<RawMessage> resynchronized(long resumePosition, long end, List<RawMessage> seed,
+                                            List<RawMessage> chunkMessages) {
+        List<RawMessage> messages = new ArrayList<>();
+        Chunk chunk = new Chunk(resumePosition, end, false, seed);
+        int next = 0;
+        RawMessage message;
+
+        while ((message = chunk.nextMessage()) != null) {
+            while (next < chunkMessages.size() && chunkMessages.get(next).timeStampNs() < message.timeStampNs())
+                next++;
+
+            if (next < chunkMessages.size() && chunkMessages.get(next).equals(message)) {
+                messages.addAll(chunkMessages.subList(next, chunkMessages.size()));
+                return messages;
+            }
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /**
+     * Demodulates the messages starting between the given power samples.
+     *
+     * @param start      the index of the first power sample where a message may start
+     * @param end        the index of the power sample following the last one where a message may start
+     * @param continuing true if the demodulation continues the one of the previous power samples, which are
+     *                   then supposed not to contain any message, and false if it starts after a message
+     * @param seed       the messages giving the addresses known at the beginning of the demodulation
+     * @return the messages starting between the given power samples, whose time stamps are relative
+     * to the beginning of the file
+     * @throws UncheckedIOException in case of input/output error
+     */
+    private List<RawMessage> demodulate(long start, long end, boolean continuing, List<RawMessage> seed) {
+        List<RawMessage> messages = new ArrayList<>();
+        Chunk chunk = new Chunk(start, end, continuing, seed);
+        RawMessage message;
+
+        while ((message = chunk.nextMessage()) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static long endPosition(RawMessage message) {
+        return message.timeStampNs() / AdsbDemodulator.TIME_FACTOR
+                + SampleTiming.AIRSPY.frameDuration(message.bytes().size());
+    }
+
+    /**
+     * A part of the sample file demodulated by its own demodulator, read from a few samples before
+     * its beginning, so that its power samples are computed from all the samples they depend on.
+     */
+    private final class Chunk {
+        private final AdsbDemodulator demodulator;
+        private final long offsetNs;
+
+        private Chunk(long start, long end, boolean continuing, List<RawMessage> seed) {
+            try {
+                long first = continuing ? start - 1 : start;
+                long warmUp = Math.min(first, WARM_UP);
+                long from = first - warmUp;
+                long to = end + AdsbDemodulator.WINDOWSIZE - 1;
+
+                MappedSamplesSource samples = new MappedSamplesSource(file, from * BYTES_PER_POWER_SAMPLE,
+                        Math.min(file.size(), to * BYTES_PER_POWER_SAMPLE), 2 * PowerWindow.BATCH_SIZE);
+                PowerComputer computer = new PowerComputer(samples, PowerWindow.BATCH_SIZE);
+                PowerWindow window = new PowerWindow(computer, AdsbDemodulator.WINDOWSIZE);
+                window.advanceBy((int) warmUp);
+
+                offsetNs = from * AdsbDemodulator.TIME_FACTOR;
+                demodulator = new AdsbDemodulator(window);
+                demodulator.setAllDownLinkFormats(allDownLinkFormats);
+                for (RawMessage message : seed) {
+                    demodulator.learnAddress(message.icaoAddressValue(), message.timeStampNs() - offsetNs);
+                }
+                if (continuing) demodulator.skipPosition();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private RawMessage nextMessage() {
+            try {
+                RawMessage message = demodulator.nextMessage();
+                return (message == null) ? null : new RawMessage(message.timeStampNs() + offsetNs, message.bytes(),
+                        message.signalPower(), message.noisePower());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
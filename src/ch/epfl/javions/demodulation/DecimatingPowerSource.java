@@ -0,0 +1,73 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+
+/**
+ * Final class DecimatingPowerSource : lowers the rate of the power samples of another source by replacing
+ * each group of a given number of consecutive power samples by their mean.
+ * The groups may straddle two batches of the source, and the last group is dropped if the source ends within it.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class DecimatingPowerSource implements PowerSource {
+    private final PowerSource source;
+    private final int decimation;
+    private final int[] sourceBatch;
+    private int sourceIndex;
+    private int sourceCount;
+
+    /**
+     * DecimatingPowerSource's constructor.
+     *
+     * @param source     the source of the power samples to decimate
+     * @param decimation the number of power samples of the source averaged into one
+     * @param batchSize  the size of the batches of the source
+     * @throws IllegalArgumentException if the decimation or the batch size is not positive
+     */
+    DecimatingPowerSource(PowerSource source, int decimation, int batchSize) {
+        Preconditions.checkArgument(decimation > 0 && batchSize > 0);
+
+        this.source = source;
+        this.decimation = decimation;
+        sourceBatch = new int[batchSize];
+    }
+
+    /**
+     * Fills the given batch with the means of the next groups of power samples of the source.
+     *
+     * @param batch the batch receiving the power samples
+     * @return the number of power samples placed in the batch, less than its size only at the end of the source
+     * @throws IOException in case of input/output error
+     */
+    @Override
+    public int readBatch(int[] batch) throws IOException {
+        for (int count = 0; count < batch.length; count++) {
+            long sum = 0;
+
+            for (int k = 0; k < decimation; k++) {
+                if (sourceIndex == sourceCount) {
+                    sourceCount = source.readBatch(sourceBatch);
+                    sourceIndex = 0;
+                    if (sourceCount == 0) return count;
+                }
+                sum += sourceBatch[sourceIndex++];
+            }
+            batch[count] = (int) (sum / decimation);
+        }
+
+        return batch.length;
+    }
+
+    /**
+     * Closes the source of the power samples.
+     *
+     * @throws IOException in case of input/output error
+     */
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
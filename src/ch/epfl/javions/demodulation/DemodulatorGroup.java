@@ -0,0 +1,159 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Final class DemodulatorGroup : represents a group of demodulators, each one running on its own thread
+ * and demodulating the samples of its own receiver, whose messages are merged into a single feed
+ * ordered by time stamp.
+ * The time stamps of the different receivers are supposed to be relative to the same instant, i.e. the sample
+ * streams are supposed to have been started together.
+ * Each receiver keeps at most QUEUE_CAPACITY messages that haven't been returned yet, its thread waiting
+ * when they aren't consumed, and thus leaving its samples in its stream, until one of them is returned.
+ * The group owns the streams, which are closed with its threads by close.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+public final class DemodulatorGroup implements AutoCloseable {
+    private static final long WAIT_NANOS = 100_000;
+    private static final int QUEUE_CAPACITY = 1 << 10;
+    private final List<InputStream> samplesStreams;
+    private final List<Receiver> receivers = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * DemodulatorGroup's constructor, starts one thread demodulating each of the given streams.
+     *
+     * @param samplesStreams the sample streams of the receivers
+     * @throws IOException if an input/output error occurs when creating one of the demodulators
+     */
+    public DemodulatorGroup(List<InputStream> samplesStreams) throws IOException {
+        this.samplesStreams = List.copyOf(samplesStreams);
+        for (InputStream samplesStream : this.samplesStreams) {
+            receivers.add(new Receiver(new AdsbDemodulator(samplesStream)));
+        }
+
+        for (int i = 0; i < receivers.size(); i++) {
+            Thread thread = new Thread(receivers.get(i)::demodulate, "DemodulatorGroup receiver " + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Waits until the oldest message that can still be received is known, i.e. until every other receiver
+     * either has a newer message, has searched its samples beyond that message, or has reached the end of its stream.
+     *
+     * The error that stopped one of the receivers is thrown as soon as it is seen, even if the other receivers
+     * still have messages.
+     *
+     * @return the next message received by the group, or null if the end of all the sample streams has been reached
+     * @throws IOException in case of an input/output error on one of the streams, or of any other error stopping
+     *                     one of the receivers, which is then the cause of the exception
+     */
+    public RawMessage nextMessage() throws IOException {
+        int receiversCount = receivers.size();
+        long[] progresses = new long[receiversCount];
+        RawMessage[] heads = new RawMessage[receiversCount];
+
+        while (true) {
+            for (int i = 0; i < receiversCount; i++) {
+                Receiver receiver = receivers.get(i);
+                if (receiver.finished && receiver.failure != null) throw receiver.failure;
+                progresses[i] = receiver.finished ? Long.MAX_VALUE : receiver.demodulator.progressNs();
+            }
+
+            int oldest = -1;
+            for (int i = 0; i < receiversCount; i++) {
+                heads[i] = receivers.get(i).messages.peek();
+                if ((heads[i] != null) && ((oldest < 0) || (heads[i].timeStampNs() < heads[oldest].timeStampNs())))
+                    oldest = i;
+            }
+
+            if (oldest < 0) {
+                if (allFinished(progresses)) return null;
+            } else if (isOldest(heads[oldest], heads, progresses)) {
+                return receivers.get(oldest).messages.remove();
+            }
+
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Stops the threads of the receivers and closes their demodulators and streams, the messages not yet
+     * returned being lost. The group must not be used any more.
+     *
+     * @throws IOException in case of input/output error when closing one of the streams
+     */
+    @Override
+    public void close() throws IOException {
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+
+        IOException failure = null;
+        for (int i = 0; i < receivers.size(); i++) {
+            try {
+                receivers.get(i).demodulator.close();
+                samplesStreams.get(i).close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private static boolean allFinished(long[] progresses) {
+        for (long progress : progresses) {
+            if (progress != Long.MAX_VALUE) return false;
+        }
+        return true;
+    }
+
+    private static boolean isOldest(RawMessage message, RawMessage[] heads, long[] progresses) {
+        for (int i = 0; i < heads.length; i++) {
+            if ((heads[i] == null) && (progresses[i] <= message.timeStampNs())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * A receiver of the group, with the messages it demodulated that haven't been returned yet.
+     * The progress of the demodulator and the finished flag are read before the queue, so that any message
+     * demodulated before them is seen. The failure is set before the finished flag, whatever stopped the receiver.
+     */
+    private static final class Receiver {
+        private final AdsbDemodulator demodulator;
+        private final BlockingQueue<RawMessage> messages = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private volatile boolean finished;
+        private volatile IOException failure;
+
+        private Receiver(AdsbDemodulator demodulator) {
+            this.demodulator = demodulator;
+        }
+
+        private void demodulate() {
+            try {
+                RawMessage message;
+                while ((message = demodulator.nextMessage()) != null) messages.put(message);
+            } catch (IOException e) {
+                failure = e;
+            } catch (Throwable e) {
+                failure = new IOException(e);
+            } finally {
+                finished = true;
+            }
+        }
+    }
+}
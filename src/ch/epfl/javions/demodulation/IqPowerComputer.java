@@ -0,0 +1,60 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Final class IqPowerComputer : computes the power samples of the signal from interleaved I/Q samples
+ * of 8 unsigned bits, such as the ones recorded by the RTL-SDR receivers.
+ * The values are recentered on 127.5 and doubled, so that the power of each sample is the integer
+ * (2I - 255)² + (2Q - 255)².
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class IqPowerComputer implements PowerSource {
+    private static final int VALUES_IN_SAMPLE = 2;
+    private static final int RECENTER_VALUE = 255;
+    private final InputStream stream;
+    private final byte[] bytes;
+
+    /**
+     * IqPowerComputer's constructor.
+     *
+     * @param stream    the stream of the I/Q samples, the in-phase value of each sample coming first
+     * @param batchSize the number of power samples computed by each batch
+     * @throws IllegalArgumentException if the batch size is not positive
+     * @throws NullPointerException     if the stream is null
+     */
+    IqPowerComputer(InputStream stream, int batchSize) {
+        Preconditions.checkArgument(batchSize > 0);
+
+        this.stream = Objects.requireNonNull(stream);
+        bytes = new byte[VALUES_IN_SAMPLE * batchSize];
+    }
+
+    /**
+     * Reads the I/Q samples needed to fill the given batch and computes their powers.
+     *
+     * @param batch the batch receiving the power samples, of the size given to the constructor
+     * @return the number of power samples placed in the batch, less than its size only at the end of the stream
+     * @throws IOException in case of input/output error
+     */
+    @Override
+    public int readBatch(int[] batch) throws IOException {
+        Preconditions.checkArgument(VALUES_IN_SAMPLE * batch.length == bytes.length);
+
+        int count = stream.readNBytes(bytes, 0, bytes.length) / VALUES_IN_SAMPLE;
+
+        for (int i = 0; i < count; i++) {
+            int inPhase = 2 * Byte.toUnsignedInt(bytes[2 * i]) - RECENTER_VALUE;
+            int quadrature = 2 * Byte.toUnsignedInt(bytes[2 * i + 1]) - RECENTER_VALUE;
+            batch[i] = inPhase * inPhase + quadrature * quadrature;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Final class MappedSamplesSource : represents a source of samples reading a region of a recorded sample file
+ * mapped in memory, so that the samples are read directly from the file pages, without any copy.
+ * As a single mapping can't exceed 2 GB, the region is mapped in several parts whose size is a multiple
+ * of the size of a batch.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class MappedSamplesSource implements SamplesSource {
+    private static final int MAX_MAPPING_SIZE = 1 << 30;
+    private static final ShortBuffer NO_SAMPLES = ShortBuffer.allocate(0);
+    private final List<MappedByteBuffer> mappings = new ArrayList<>();
+    private final int batchBytes;
+    private int mappingIndex;
+    private int offset;
+
+    /**
+     * MappedSamplesSource's constructor, maps the given region of the file.
+     * The mappings stay valid once the file is closed.
+     *
+     * @param file      the sample file
+     * @param start     the position of the first byte of the region
+     * @param end       the position following the last byte of the region
+     * @param batchSize the number of samples of a batch
+     * @throws IOException              in case of input/output error
+     * @throws IllegalArgumentException if the batch size isn't strictly positive, or if the region is invalid
+     */
+    MappedSamplesSource(FileChannel file, long start, long end, int batchSize) throws IOException {
+        Preconditions.checkArgument((batchSize > 0) && (0 <= start) && (start <= end));
+
+        batchBytes = batchSize * Short.BYTES;
+        int mappingSize = (MAX_MAPPING_SIZE / batchBytes) * batchBytes;
+
+        for (long position = start; position < end; position += mappingSize) {
+            long size = Math.min(mappingSize, end - position);
+            mappings.add(file.map(FileChannel.MapMode.READ_ONLY, position, size));
+        }
+    }
+
+    /**
+     * @return a view of the next batch of samples of the mapped region, whose limit is the number of samples read
+     */
+    @Override
+    public ShortBuffer readRawBatch() {
+        if (mappingIndex == mappings.size()) return NO_SAMPLES;
+
+        MappedByteBuffer mapping = mappings.get(mappingIndex);
+        int length = Math.min(batchBytes, mapping.capacity() - offset);
+        ShortBuffer samples = mapping.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+
+        offset += length;
+        if (offset == mapping.capacity()) {
+            mappingIndex++;
+            offset = 0;
+        }
+        return samples;
+    }
+}
@@ -5,6 +5,7 @@ import ch.epfl.javions.Preconditions;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ShortBuffer;
 
 /**
  * Final class PowerComputer : represents an object able to calculate the power samples of the signal
@@ -13,78 +14,82 @@ import java.io.InputStream;
  * @author Yshai  (356356)
  * @author Gabriel Taieb (360560)
  */
-public final class PowerComputer {
+public final class PowerComputer implements PowerSource {
     private static final int VALUES_IN_SAMPLE = 8;
-    private final SamplesDecoder decoder;
-    private final short[] samplesBatchTab;
+    private final SamplesSource source;
     private final int batchSize;
-    private final short[] lastEightTab = new short[VALUES_IN_SAMPLE];
-    private int head = 0;
+    private int sample2, sample3, sample4, sample5, sample6, sample7;
 
     /**
      * PowerComputer's constructor
-     * creates the array that contains the samples.
+     * creates the decoder providing the samples.
      *
      * @param stream    the stream
      * @param batchSize the batch size
      */
     public PowerComputer(InputStream stream, int batchSize) {
+        this(new SamplesDecoder(stream, 2 * batchSize)::readRawBatch, batchSize);
+    }
+
+    /**
+     * PowerComputer's constructor, computing the power samples from the samples provided by the given source.
+     *
+     * @param source    the source of the samples, producing batches of twice the batch size
+     * @param batchSize the batch size
+     */
+    PowerComputer(SamplesSource source, int batchSize) {
         Preconditions.checkArgument((batchSize % VALUES_IN_SAMPLE) == 0 && batchSize > 0);
 
         this.batchSize = batchSize;
-        samplesBatchTab = new short[2 * batchSize];
-        decoder = new SamplesDecoder(stream, 2 * batchSize);
+        this.source = source;
+        sample2 = sample3 = sample4 = sample5 = sample6 = sample7 = SamplesDecoder.RECENTER_VALUE;
     }
 
     /**
-     * Reads from the sample decoder the number of samples needed to calculate a batch
-     * of power sample and then computes them.
+     * Reads from the source of samples the number of samples needed to calculate a batch
+     * of power sample and then computes them, in a single pass over the raw bytes read.
+     * The samples are not recentered since the offset cancels out in the sums of the filter,
+     * the samples preceding the first batch being initialized to that offset.
+     * The eight samples used by a power sample are kept in local variables, from s0 (the newest)
+     * to s7 (the oldest), so that each power sample only costs a few additions and two multiplications.
+     * The six newest ones are saved between two batches.
      *
      * @param batch a batch of length 1 << 16
      * @return the number of power samples placed in the array
      * @throws IOException in case of input/output error
      */
+    @Override
     public int readBatch(int[] batch) throws IOException {
         Preconditions.checkArgument((batch.length == batchSize));
 
-        int samplesNumber = decoder.readBatch(samplesBatchTab);
-        int count = 0;
+        ShortBuffer samples = source.readRawBatch();
+        int count = samples.limit() / 2;
 
-        for (int i = 0, j = 0; i < (samplesNumber - 1); i += 2, j++) {
-            incrementHead();
-            lastEightTab[head] = samplesBatchTab[i];
-            incrementHead();
-            lastEightTab[head] = samplesBatchTab[i + 1];
+        int s2 = sample2, s3 = sample3, s4 = sample4, s5 = sample5, s6 = sample6, s7 = sample7;
 
-            batch[j] = calculatedPower();
-            count++;
-        }
-        return count;
-    }
+        for (int i = 0, j = 0; j < count; i += 2, j++) {
+            int s1 = samples.get(i);
+            int s0 = samples.get(i + 1);
 
-    /**
-     * Calculates the power of the last eight samples.
-     *
-     * @return the power of the last eight samples
-     */
-    private int calculatedPower() {
-        int evenSum = 0;
-        int oddSum = 0;
-
-        for (int i = 0; i < VALUES_IN_SAMPLE; i++) {
-            int lastIndex = lastEightTab[(head - i + VALUES_IN_SAMPLE) % VALUES_IN_SAMPLE];
+            int inPhase = s6 - s4 + s2 - s0;
+            int quadrature = s1 - s3 + s5 - s7;
+            batch[j] = inPhase * inPhase + quadrature * quadrature;
 
-            if (i % 2 == 0) evenSum = (i % 4 == 0) ? evenSum - lastIndex : evenSum + lastIndex;
-            else oddSum = (i % 4 == 1) ? oddSum + lastIndex : oddSum - lastIndex;
+            s7 = s5;
+            s6 = s4;
+            s5 = s3;
+            s4 = s2;
+            s3 = s1;
+            s2 = s0;
         }
 
-        return evenSum * evenSum + oddSum * oddSum;
-    }
+        sample2 = s2;
+        sample3 = s3;
+        sample4 = s4;
+        sample5 = s5;
+        sample6 = s6;
+        sample7 = s7;
 
-    /**
-     * Increments the head of the array.
-     */
-    private void incrementHead() {
-        head = (head + 1) % VALUES_IN_SAMPLE;
+        return count;
     }
 }
@@ -0,0 +1,166 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Final class PowerPipeline : represents a source of power samples whose computation is spread over two threads,
+ * one reading the bytes of the samples from the stream and one computing the power samples from them.
+ * The stages are connected by rings of reusable batches, so that the thread reading the power samples
+ * only waits if the computation doesn't keep up with it.
+ * Any error stopping a stage, even unchecked, is thrown to the thread reading the power samples as an IOException.
+ * The threads are daemon threads, stopped by close, which must be called if the power samples are abandoned
+ * before the end of the stream, since the reading thread would otherwise wait forever for a free batch.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class PowerPipeline implements PowerSource {
+    private static final int RING_CAPACITY = 4;
+    private final int batchSize;
+    private final ReadableByteChannel channel;
+    private final BatchRing<ByteBuffer> bytesRing;
+    private final BatchRing<int[]> powerRing;
+    private final Thread readingThread;
+    private final Thread computingThread;
+
+    /**
+     * PowerPipeline's constructor, starts the threads reading the given stream and computing the power samples.
+     *
+     * @param stream    the stream of the bytes of the samples
+     * @param batchSize the number of power samples of a batch
+     * @throws IllegalArgumentException if the batch size isn't a strictly positive multiple of 8
+     * @throws NullPointerException     if the stream is null
+     */
+    PowerPipeline(InputStream stream, int batchSize) {
+        channel = Channels.newChannel(Objects.requireNonNull(stream));
+        int samplesCount = 2 * batchSize;
+        PowerComputer computer = new PowerComputer(
+                SamplesDecoder.ofChannel(new BytesRingChannel(), samplesCount)::readRawBatch, batchSize);
+
+        this.batchSize = batchSize;
+        bytesRing = new BatchRing<>(RING_CAPACITY, () -> ByteBuffer.allocateDirect(samplesCount * Short.BYTES));
+        powerRing = new BatchRing<>(RING_CAPACITY, () -> new int[batchSize]);
+
+        readingThread = startThread(this::readBytes, "PowerPipeline reader");
+        computingThread = startThread(() -> computePowers(computer), "PowerPipeline computer");
+    }
+
+    /**
+     * Copies in the given batch the next batch of power samples computed by the pipeline.
+     *
+     * @param batch the batch receiving the power samples
+     * @return the number of power samples placed in the batch
+     * @throws IOException              in case of input/output error in one of the stages
+     * @throws IllegalArgumentException if the size of the batch is not the one given to the constructor
+     */
+    @Override
+    public int readBatch(int[] batch) throws IOException {
+        Preconditions.checkArgument(batch.length == batchSize);
+
+        int[] powers = powerRing.nextFull();
+        if (powers == null) return 0;
+
+        int count = powerRing.size();
+        System.arraycopy(powers, 0, batch, 0, count);
+        powerRing.release();
+
+        return count;
+    }
+
+    /**
+     * Stops the threads of the pipeline and closes the stream, the power samples not yet read being lost.
+     *
+     * @throws IOException in case of input/output error when closing the stream
+     */
+    @Override
+    public void close() throws IOException {
+        readingThread.interrupt();
+        computingThread.interrupt();
+        channel.close();
+    }
+
+    private void readBytes() {
+        try {
+            int bytesRead = 0;
+
+            while (bytesRead >= 0) {
+                ByteBuffer bytes = bytesRing.nextFree().clear();
+
+                while (bytes.hasRemaining()) {
+                    bytesRead = channel.read(bytes);
+                    if (bytesRead < 0) break;
+                }
+
+                bytesRing.publish(bytes.flip().limit());
+            }
+            bytesRing.close();
+        } catch (Throwable e) {
+            bytesRing.fail(asIOException(e));
+        }
+    }
+
+    private void computePowers(PowerComputer computer) {
+        try {
+            int count;
+
+            do {
+                count = computer.readBatch(powerRing.nextFree());
+                powerRing.publish(count);
+            } while (count == batchSize);
+
+            powerRing.close();
+        } catch (Throwable e) {
+            powerRing.fail(asIOException(e));
+        }
+    }
+
+    /**
+     * @param e the error that stopped a stage, which may be unchecked
+     * @return the given error if it is an IOException, otherwise an IOException caused by it, so that it is
+     * thrown to the thread reading the power samples instead of leaving it waiting for the next batch
+     */
+    private static IOException asIOException(Throwable e) {
+        return (e instanceof IOException ioException) ? ioException : new IOException(e);
+    }
+
+    private static Thread startThread(Runnable stage, String name) {
+        Thread thread = new Thread(stage, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Channel reading the bytes published by the reading thread, used by the thread computing the power samples.
+     */
+    private final class BytesRingChannel implements ReadableByteChannel {
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            ByteBuffer source = bytesRing.nextFull();
+            if (source == null) return -1;
+
+            int length = Math.min(source.remaining(), destination.remaining());
+            destination.put(destination.position(), source, source.position(), length);
+            destination.position(destination.position() + length);
+            source.position(source.position() + length);
+
+            if (!source.hasRemaining()) bytesRing.release();
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
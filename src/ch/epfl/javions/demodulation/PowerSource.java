@@ -0,0 +1,28 @@
+package ch.epfl.javions.demodulation;
+
+import java.io.IOException;
+
+/**
+ * Interface PowerSource : implemented by the objects providing the power samples read by a power window.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+interface PowerSource {
+    /**
+     * Places the next power samples in the given batch.
+     *
+     * @param batch the batch receiving the power samples
+     * @return the number of power samples placed in the batch
+     * @throws IOException in case of input/output error
+     */
+    int readBatch(int[] batch) throws IOException;
+
+    /**
+     * Releases the resources of the source, such as its threads, once its power samples are no longer needed.
+     * Does nothing by default.
+     *
+     * @throws IOException in case of input/output error
+     */
+    default void close() throws IOException {}
+}
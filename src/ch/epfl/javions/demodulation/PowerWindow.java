@@ -14,14 +14,15 @@ import java.util.Objects;
  * @author Gabriel Taieb (360560)
  */
 public final class PowerWindow {
-    private final static int BATCH_SIZE = 1 << 16;
+    final static int BATCH_SIZE = 1 << 16;
     private final int windowSize;
-    private final PowerComputer computer;
-    private int position;
+    private final PowerSource computer;
+    private long position;
     private int index;
     private int count;
     private int[] evenBatch;
     private int[] oddBatch;
+    private int[] straddlingWindow;
 
     /**
      * PowerWindow's constructor, returns a window of given size on the sequence of power samples
@@ -33,13 +34,26 @@ public final class PowerWindow {
      * @throws IllegalArgumentException if the window's size isn't between O (excluded) and 2 power 16 (included)
      */
     public PowerWindow(InputStream stream, int windowSize) throws IOException {
+        this(new PowerComputer(stream, BATCH_SIZE), windowSize);
+    }
+
+    /**
+     * PowerWindow's constructor, returns a window of given size on the sequence of power samples
+     * provided by the given source, in batches of 2 power 16 samples.
+     *
+     * @param source     the source of the power samples
+     * @param windowSize the size of the window
+     * @throws IOException              if there is an input/output error
+     * @throws IllegalArgumentException if the window's size isn't between O (excluded) and 2 power 16 (included)
+     */
+    PowerWindow(PowerSource source, int windowSize) throws IOException {
         Preconditions.checkArgument((windowSize > 0) && (windowSize <= BATCH_SIZE));
 
         this.windowSize = windowSize;
         position = 0;
         index = 0;
 
-        computer = new PowerComputer(stream, BATCH_SIZE);
+        computer = source;
 
         evenBatch = new int[BATCH_SIZE];
         oddBatch = new int[BATCH_SIZE];
@@ -47,6 +61,16 @@ public final class PowerWindow {
         count = computer.readBatch(evenBatch);
     }
 
+    /**
+     * Closes the source of the power samples, which stops the threads computing them, if any.
+     * The window must not be used any more.
+     *
+     * @throws IOException in case of input/output error
+     */
+    public void close() throws IOException {
+        computer.close();
+    }
+
     /**
      * @return the window's size
      */
@@ -79,6 +103,41 @@ public final class PowerWindow {
         return (indexI < BATCH_SIZE) ? evenBatch[indexI] : oddBatch[indexI - BATCH_SIZE];
     }
 
+    /**
+     * Copies the samples of the window, in order, at the beginning of the given array.
+     *
+     * @param destination the array receiving the samples, at least as long as the window
+     */
+    void copyTo(int[] destination) {
+        int inEvenBatch = Math.min(windowSize, BATCH_SIZE - index);
+
+        System.arraycopy(evenBatch, index, destination, 0, inEvenBatch);
+        System.arraycopy(oddBatch, 0, destination, inEvenBatch, windowSize - inEvenBatch);
+    }
+
+    /**
+     * Gives access to the samples of the window without checking the indices, for the demodulator.
+     * The window is always contiguous in the returned array, starting at samplesOffset() : it is the current
+     * batch when the window lies entirely in it, and otherwise a copy of the window made by this call.
+     * The array must not be modified, and is only valid until the window moves.
+     *
+     * @return an array containing the samples of the window, in order, from samplesOffset()
+     */
+    int[] samples() {
+        if (index + windowSize <= BATCH_SIZE) return evenBatch;
+
+        if (straddlingWindow == null) straddlingWindow = new int[windowSize];
+        copyTo(straddlingWindow);
+        return straddlingWindow;
+    }
+
+    /**
+     * @return the index of the first sample of the window in the array returned by samples()
+     */
+    int samplesOffset() {
+        return (index + windowSize <= BATCH_SIZE) ? index : 0;
+    }
+
     /**
      * Advances the window of a sample.
      *
@@ -90,16 +149,13 @@ public final class PowerWindow {
         count--;
 
         if ((index + windowSize) == BATCH_SIZE) count += computer.readBatch(oddBatch);
-        else if (index == BATCH_SIZE) {
-            int[] temp = evenBatch;
-            evenBatch = oddBatch;
-            oddBatch = temp;
-            index = 0;
-        }
+        else if (index == BATCH_SIZE) swapBatches();
     }
 
     /**
      * Advances the window by the given number of samples.
+     * The window jumps directly from one batch boundary to the next, so the batches are only
+     * refilled or swapped when the window actually crosses them.
      *
      * @param offset the given number of samples
      * @throws IOException              in case of output/input error
@@ -108,8 +164,27 @@ public final class PowerWindow {
     public void advanceBy(int offset) throws IOException {
         Preconditions.checkArgument(offset >= 0);
 
-        for (int i = 0; i < offset; i++) {
-            advance();
+        while (offset > 0) {
+            int refillDistance = BATCH_SIZE - windowSize - index;
+            int step = Math.min(offset, (refillDistance > 0) ? refillDistance : BATCH_SIZE - index);
+
+            position += step;
+            index += step;
+            count -= step;
+            offset -= step;
+
+            if ((index + windowSize) == BATCH_SIZE) count += computer.readBatch(oddBatch);
+            else if (index == BATCH_SIZE) swapBatches();
         }
     }
+
+    /**
+     * Swaps the even and odd batches once the window has entirely left the even one.
+     */
+    private void swapBatches() {
+        int[] temp = evenBatch;
+        evenBatch = oddBatch;
+        oddBatch = temp;
+        index = 0;
+    }
 }
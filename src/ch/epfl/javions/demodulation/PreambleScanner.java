@@ -0,0 +1,118 @@
+package ch.epfl.javions.demodulation;
+
+/**
+ * Final class PreambleScanner : searches a block of contiguous power samples for the positions at which
+ * an ADS-B preamble may start. The peak sums of all the positions of the block are computed at once,
+ * in a simple loop over arrays that the JIT compiler turns into SIMD instructions.
+ * The positions are then tested by a cascade of increasingly costly checks : the peak sum must be a local
+ * maximum, then reach the minimum peak, and only then is the valley sum computed and compared to it.
+ * When a minimum peak is set, the blocks whose largest sample cannot reach it are skipped entirely.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class PreambleScanner {
+    private final int indexPeak2, indexPeak3, indexPeak4;
+    private final int indexValleys1, indexValleys2, indexValleys3, indexValleys4, indexValleys5, indexValleys6;
+    private final int positions;
+    private final int[] peaks;
+    private int[] samples;
+    private boolean quiet;
+    private int minimumPeak;
+
+    /**
+     * PreambleScanner's constructor.
+     *
+     * @param timing    the timing of the power samples, giving the positions of the peaks and valleys
+     * @param blockSize the number of power samples in the blocks that will be scanned
+     */
+    PreambleScanner(SampleTiming timing, int blockSize) {
+        indexPeak2 = timing.peak(1);
+        indexPeak3 = timing.peak(2);
+        indexPeak4 = timing.peak(3);
+        indexValleys1 = timing.valley(0);
+        indexValleys2 = timing.valley(1);
+        indexValleys3 = timing.valley(2);
+        indexValleys4 = timing.valley(3);
+        indexValleys5 = timing.valley(4);
+        indexValleys6 = timing.valley(5);
+
+        positions = blockSize - indexPeak4 - 1;
+        peaks = new int[positions + 1];
+    }
+
+    /**
+     * @return the number of positions examined in each block, the last one needing the peaks of the next position
+     */
+    int positions() {
+        return positions;
+    }
+
+    /**
+     * Sets the smallest peak sum of the positions where a preamble may start, 0 by default.
+     *
+     * @param minimumPeak the smallest peak sum of a preamble
+     */
+    void setMinimumPeak(int minimumPeak) {
+        this.minimumPeak = minimumPeak;
+    }
+
+    /**
+     * Computes the peak sums of every position of the given block, unless none of them can reach the minimum peak.
+     *
+     * @param samples the block of power samples, which must not be modified until the block has been examined
+     */
+    void scan(int[] samples) {
+        this.samples = samples;
+
+        if (minimumPeak > 0) {
+            int max = 0;
+            for (int sample : samples) {
+                max = Math.max(max, sample);
+            }
+
+            quiet = (long) AdsbDemodulator.PREAMBLE_PEAKS * max < minimumPeak;
+            if (quiet) return;
+        } else {
+            quiet = false;
+        }
+
+        int peak2 = indexPeak2, peak3 = indexPeak3, peak4 = indexPeak4;
+        for (int k = 0; k < peaks.length; k++) {
+            peaks[k] = samples[k] + samples[k + peak2] + samples[k + peak3] + samples[k + peak4];
+        }
+    }
+
+    /**
+     * @param from         the first position to examine
+     * @param previousPeak the peak sum of the position preceding the first one
+     * @return the first position, starting at from, where a preamble may start, or -1 if there is none in the block
+     */
+    int nextCandidate(int from, int previousPeak) {
+        if (quiet) return -1;
+
+        for (int k = from; k < positions; k++) {
+            int peak = peaks[k];
+
+            if ((previousPeak < peak) && (peak > peaks[k + 1]) && (peak >= minimumPeak) && (peak >= 2 * valleyAt(k)))
+                return k;
+            previousPeak = peak;
+        }
+        return -1;
+    }
+
+    /**
+     * @param position the position in the block
+     * @return the peak sum of the given position
+     */
+    int peakAt(int position) {
+        return samples[position] + samples[position + indexPeak2]
+                + samples[position + indexPeak3] + samples[position + indexPeak4];
+    }
+
+    private int valleyAt(int position) {
+        return samples[position + indexValleys1] + samples[position + indexValleys2]
+                + samples[position + indexValleys3] + samples[position + indexValleys4]
+                + samples[position + indexValleys5] + samples[position + indexValleys6];
+    }
+}
@@ -0,0 +1,111 @@
+package ch.epfl.javions.demodulation;
+
+import java.util.Arrays;
+
+/**
+ * Final class RecentAddresses : represents the set of the ICAO addresses seen recently, each address being
+ * forgotten EXPIRY_NS nanoseconds after the last time it was seen.
+ * The addresses are kept in a hash table of primitive values, with open addressing, so that looking an address up
+ * or seeing it again doesn't allocate anything. The forgotten addresses are only removed when the table is full.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class RecentAddresses {
+    /**
+     * EXPIRY_NS : the time after which an address that hasn't been seen again is forgotten, one minute
+     */
+    static final long EXPIRY_NS = 60_000_000_000L;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int NO_ADDRESS = -1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private int[] addresses;
+    private long[] timeStampsNs;
+    private int count;
+
+    /**
+     * RecentAddresses' constructor, returns an empty set.
+     */
+    RecentAddresses() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Records that the given address has been seen at the given time, which must not be older than the times
+     * given so far.
+     *
+     * @param address     the 24-bit value of the address
+     * @param timeStampNs the time at which the address has been seen, in nanoseconds
+     */
+    void add(int address, long timeStampNs) {
+        int slot = slot(address);
+
+        if (addresses[slot] == NO_ADDRESS) {
+            if (2 * (count + 1) > addresses.length) {
+                rehash(timeStampNs);
+                slot = slot(address);
+            }
+            addresses[slot] = address;
+            count++;
+        }
+        timeStampsNs[slot] = timeStampNs;
+    }
+
+    /**
+     * @param address     the 24-bit value of an address
+     * @param timeStampNs the current time, in nanoseconds
+     * @return true iff the given address has been seen at most EXPIRY_NS nanoseconds before the given time
+     */
+    boolean contains(int address, long timeStampNs) {
+        int slot = slot(address);
+
+        return (addresses[slot] == address) && (timeStampNs - timeStampsNs[slot] <= EXPIRY_NS);
+    }
+
+    /**
+     * Removes the forgotten addresses, and doubles the capacity of the table if it is still at least
+     * a quarter full.
+     *
+     * @param timeStampNs the current time, in nanoseconds
+     */
+    private void rehash(long timeStampNs) {
+        int[] oldAddresses = addresses;
+        long[] oldTimeStampsNs = timeStampsNs;
+        int recentCount = 0;
+
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != NO_ADDRESS && timeStampNs - oldTimeStampsNs[i] <= EXPIRY_NS) recentCount++;
+        }
+
+        allocate(4 * (recentCount + 1) > oldAddresses.length ? 2 * oldAddresses.length : oldAddresses.length);
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != NO_ADDRESS && timeStampNs - oldTimeStampsNs[i] <= EXPIRY_NS) {
+                int slot = slot(oldAddresses[i]);
+                addresses[slot] = oldAddresses[i];
+                timeStampsNs[slot] = oldTimeStampsNs[i];
+            }
+        }
+        count = recentCount;
+    }
+
+    private void allocate(int capacity) {
+        addresses = new int[capacity];
+        timeStampsNs = new long[capacity];
+        Arrays.fill(addresses, NO_ADDRESS);
+    }
+
+    /**
+     * @param address the 24-bit value of an address
+     * @return the slot of the table containing the given address, or the empty slot where it would be placed
+     */
+    private int slot(int address) {
+        int mask = addresses.length - 1;
+        int hash = address * HASH_MULTIPLIER;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        while (addresses[slot] != NO_ADDRESS && addresses[slot] != address) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
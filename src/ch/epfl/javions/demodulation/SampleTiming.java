@@ -0,0 +1,128 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+/**
+ * Final class SampleTiming : gives the positions, in power samples, of the parts of a Mode S message
+ * for a given rate of the power samples.
+ * Each half of a bit, or pulse of the preamble, is located by the sample closest to its middle, which lies
+ * within it even when a half bit covers little more than one sample, as at 2.4 MS/s.
+ * The positions are relative to the one of the first pulse of the preamble.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+final class SampleTiming {
+    private static final int MIN_SAMPLE_RATE = 2_000_000;
+    private static final long NANOSECONDS_PER_SECOND = 1_000_000_000L;
+    private static final double[] PEAKS_US = {0, 1, 3.5, 4.5};
+    private static final double[] VALLEYS_US = {0.5, 1.5, 2, 2.5, 3, 4};
+    private static final double HALF_PULSE_US = 0.25;
+    private static final int PREAMBLE_US = 8;
+    private static final int LONGEST_FRAME_US = 120;
+    private static final int MAX_BITS = 112;
+    private static final int MAX_PHASE_SHIFT = 2;
+    /**
+     * AIRSPY : the timing of the power samples computed from the samples of the AirSpy, at 10 MS/s
+     */
+    static final SampleTiming AIRSPY = new SampleTiming(10_000_000, 1);
+    private final int sampleRate;
+    private final int decimation;
+    private final double samplesPerMicrosecond;
+    private final long origin;
+    private final int[] pulseOffsets = new int[MAX_BITS];
+    private final int[] gapOffsets = new int[MAX_BITS];
+
+    /**
+     * SampleTiming's constructor.
+     *
+     * @param sampleRate the number of power samples per second produced by the source of the samples
+     * @param decimation the number of consecutive power samples of the source summed into one
+     * @throws IllegalArgumentException if the decimation is not positive, or if the resulting rate is less
+     *                                  than 2 MS/s, one sample per half bit
+     */
+    SampleTiming(int sampleRate, int decimation) {
+        Preconditions.checkArgument(decimation > 0 && sampleRate / decimation >= MIN_SAMPLE_RATE);
+
+        this.sampleRate = sampleRate;
+        this.decimation = decimation;
+        samplesPerMicrosecond = (double) sampleRate / decimation / 1_000_000;
+        origin = Math.round(HALF_PULSE_US * samplesPerMicrosecond);
+
+        for (int i = 0; i < MAX_BITS; i++) {
+            pulseOffsets[i] = at(PREAMBLE_US + i);
+            gapOffsets[i] = at(PREAMBLE_US + i + 0.5);
+        }
+    }
+
+    /**
+     * @param microseconds the beginning of a pulse from the beginning of the preamble, in microseconds
+     * @return the position of the power sample closest to the middle of this pulse
+     */
+    int at(double microseconds) {
+        return (int) (Math.round((microseconds + HALF_PULSE_US) * samplesPerMicrosecond) - origin);
+    }
+
+    /**
+     * @return the number of power samples covering the longest message, preamble included
+     */
+    int windowSize() {
+        return at(LONGEST_FRAME_US);
+    }
+
+    /**
+     * @param i the index of a peak of the preamble, between 0 and 3
+     * @return the position of this peak
+     */
+    int peak(int i) {
+        return at(PEAKS_US[i]);
+    }
+
+    /**
+     * @param i the index of a valley of the preamble, between 0 and 5
+     * @return the position of this valley
+     */
+    int valley(int i) {
+        return at(VALLEYS_US[i]);
+    }
+
+    /**
+     * @return the positions of the first halves of the bits of a message, where the pulse of the ones lies
+     */
+    int[] pulseOffsets() {
+        return pulseOffsets.clone();
+    }
+
+    /**
+     * @return the positions of the second halves of the bits of a message, where the pulse of the zeros lies
+     */
+    int[] gapOffsets() {
+        return gapOffsets.clone();
+    }
+
+    /**
+     * @param size the size of a message, in bytes
+     * @return the number of power samples covered by the preamble and the bits of a message of the given size
+     */
+    int frameDuration(int size) {
+        return at(PREAMBLE_US + size * Byte.SIZE);
+    }
+
+    /**
+     * @return the largest shift of the sampling of the bits keeping the longest messages in the window
+     */
+    int maxPhaseShift() {
+        return Math.max(0, Math.min(MAX_PHASE_SHIFT, windowSize() - 1 - gapOffsets[MAX_BITS - 1]));
+    }
+
+    /**
+     * @param position the index of a power sample from the beginning of the stream
+     * @return the time elapsed from the first power sample to it, in nanoseconds
+     */
+    long timeStampNs(long position) {
+        long sourcePosition = position * decimation;
+
+        return (sourcePosition / sampleRate) * NANOSECONDS_PER_SECOND
+                + (sourcePosition % sampleRate) * NANOSECONDS_PER_SECOND / sampleRate;
+    }
+}
@@ -4,6 +4,11 @@ import ch.epfl.javions.Preconditions;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Objects;
 
 /**
@@ -14,9 +19,10 @@ import java.util.Objects;
  * @author Gabriel Taieb (360560)
  */
 public final class SamplesDecoder {
-    private final static double RECENTER_VALUE = Math.scalb(1, 11);
-    private final InputStream stream;
-    private final byte[] batchTab;
+    final static int RECENTER_VALUE = 1 << 11;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer bytesBuffer;
+    private final ShortBuffer samplesBuffer;
     private final int batchSize;
 
     /**
@@ -29,13 +35,32 @@ public final class SamplesDecoder {
      * @throws NullPointerException     if the stream is null
      */
     public SamplesDecoder(InputStream stream, int batchSize) {
+        this(Channels.newChannel(Objects.requireNonNull(stream)), batchSize);
+    }
+
+    private SamplesDecoder(ReadableByteChannel channel, int batchSize) {
         Preconditions.checkArgument(batchSize > 0);
-        Objects.requireNonNull(stream);
+        Objects.requireNonNull(channel);
 
-        this.stream = stream;
+        this.channel = channel;
 
         this.batchSize = batchSize;
-        batchTab = new byte[2 * batchSize];
+        bytesBuffer = ByteBuffer.allocateDirect(batchSize * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        samplesBuffer = bytesBuffer.asShortBuffer();
+    }
+
+    /**
+     * Returns a sample decoder reading the bytes from the AirSpy radio directly from the given channel,
+     * without copying them through an intermediate array of the Java heap.
+     *
+     * @param channel   the given channel
+     * @param batchSize the number of samples to be produced during each conversion
+     * @return a sample decoder reading from the given channel
+     * @throws IllegalArgumentException if bachSize <=0
+     * @throws NullPointerException     if the channel is null
+     */
+    public static SamplesDecoder ofChannel(ReadableByteChannel channel, int batchSize) {
+        return new SamplesDecoder(channel, batchSize);
     }
 
     /**
@@ -50,15 +75,29 @@ public final class SamplesDecoder {
     public int readBatch(short[] batch) throws IOException {
         Preconditions.checkArgument(batch.length == batchSize);
 
-        int samplesCount = stream.readNBytes(batchTab, 0, batchSize * 2);
+        ShortBuffer rawSamples = readRawBatch();
+        int samplesCount = rawSamples.limit();
+        rawSamples.get(0, batch, 0, samplesCount);
 
-        for (int i = 0, j = 0; i < samplesCount; i += 2, j++) {
-            byte byte1 = batchTab[i];
-            byte byte2 = batchTab[i + 1];
+        for (int i = 0; i < samplesCount; i++) {
+            batch[i] = (short) (batch[i] - RECENTER_VALUE);
+        }
+        return samplesCount;
+    }
 
-            short short1 = (short) (((Byte.toUnsignedInt(byte2) << Byte.SIZE) | Byte.toUnsignedInt(byte1)) - RECENTER_VALUE);
-            batch[j] = short1;
+    /**
+     * Reads from the channel the number of bytes corresponding to a batch, without converting them.
+     * The returned view is overwritten by the next read.
+     *
+     * @return a view of the samples read, not yet recentered, whose limit is the number of samples read
+     * @throws IOException in case of input/output error
+     */
+    ShortBuffer readRawBatch() throws IOException {
+        bytesBuffer.clear();
+        while (bytesBuffer.hasRemaining()) {
+            if (channel.read(bytesBuffer) < 0) break;
         }
-        return samplesCount / Short.BYTES;
+
+        return samplesBuffer.clear().limit(bytesBuffer.position() / Short.BYTES);
     }
 }
@@ -0,0 +1,21 @@
+package ch.epfl.javions.demodulation;
+
+import java.io.IOException;
+import java.nio.ShortBuffer;
+
+/**
+ * Interface SamplesSource : implemented by the objects providing the raw samples used by a power computer.
+ *
+ * @author Yshai  (356356)
+ * @author Gabriel Taieb (360560)
+ */
+interface SamplesSource {
+    /**
+     * Reads the next batch of samples, without recentering them.
+     * The returned view may be overwritten by the next read.
+     *
+     * @return a view of the samples read, whose limit is the number of samples read
+     * @throws IOException in case of input/output error
+     */
+    ShortBuffer readRawBatch() throws IOException;
+}
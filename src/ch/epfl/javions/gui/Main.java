@@ -4,6 +4,7 @@ import ch.epfl.javions.ByteString;
 import ch.epfl.javions.adsb.Message;
 import ch.epfl.javions.adsb.MessageParser;
 import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageView;
 import ch.epfl.javions.aircraft.AircraftDatabase;
 import ch.epfl.javions.demodulation.AdsbDemodulator;
 import javafx.animation.AnimationTimer;
@@ -25,6 +26,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -40,6 +42,7 @@ public final class Main extends Application {
     private static final int X = 33_530;
     private static final int Y = 23_070;
     private static final long PURGE_PERIOD = Duration.ofSeconds(1).toNanos();
+    private static final String SAMPLES_PARAMETER = "samples";
     private final ConcurrentLinkedQueue<Message> messageQueue = new ConcurrentLinkedQueue<>();
 
     /**
@@ -98,9 +101,11 @@ public final class Main extends Application {
         setStage(primaryStage, splitPane);
 
         Thread thread = new Thread(() -> {
-            List<String> args = getParameters().getRaw();
+            Map<String, String> namedArgs = getParameters().getNamed();
+            List<String> args = getParameters().getUnnamed();
             try {
-                if (args.isEmpty()) readFromSystemIn();
+                if (namedArgs.containsKey(SAMPLES_PARAMETER)) readAllSamples(namedArgs.get(SAMPLES_PARAMETER));
+                else if (args.isEmpty()) readFromSystemIn();
                 else readAllMessages(args.get(0));
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
@@ -155,7 +160,7 @@ public final class Main extends Application {
                 long timeStampNs = stream.readLong();
                 int bytesRead = stream.readNBytes(bytes, 0, bytes.length);
                 assert bytesRead == RawMessage.LENGTH;
-                ByteString message = new ByteString(bytes);
+                ByteString message = ByteString.wrap(bytes, 0, bytes.length);
 
                 long timeLapseMs = Duration.ofNanos((startTime + timeStampNs) - System.nanoTime()).toMillis();
                 if (timeLapseMs > 0)//noinspection BusyWait
@@ -168,21 +173,47 @@ public final class Main extends Application {
         catch (EOFException | InterruptedException ignored) {}
     }
 
+    /**
+     * Demodulates all messages from a recorded sample file, given with the --samples=file parameter,
+     * and adds them to the message queue at the pace at which they were received.
+     *
+     * @param fileName the name of the file containing the samples.
+     * @throws IOException in case of input/output error.
+     */
+    private void readAllSamples(String fileName) throws IOException {
+        long startTime = System.nanoTime();
+        AdsbDemodulator demodulator = AdsbDemodulator.ofSamplesFile(Path.of(fileName));
+        demodulator.setAllDownLinkFormats(true);
+        RawMessage rawMessage;
+
+        try {
+            while ((rawMessage = demodulator.nextMessage()) != null) {
+                long timeLapseMs =
+                        Duration.ofNanos((startTime + rawMessage.timeStampNs()) - System.nanoTime()).toMillis();
+                if (timeLapseMs > 0)//noinspection BusyWait
+                    Thread.sleep(timeLapseMs);
+
+                Message message = MessageParser.parse(rawMessage);
+                if (message != null) messageQueue.add(message);
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
     /**
      * Reads all messages from the standard input (System.in) and adds them to the message queue.
      *
      * @throws IOException if an input or output exception occurred
      */
     private void readFromSystemIn() throws IOException {
-        AdsbDemodulator demodulator = new AdsbDemodulator(System.in);
-            //noinspection InfiniteLoopStatement
-            while (true) {
-                RawMessage rawMessage = demodulator.nextMessage();
-                if (rawMessage != null) {
-                    Message message = MessageParser.parse(rawMessage);
-                    if (message != null) messageQueue.add(message);
-                }
+        try (AdsbDemodulator demodulator = AdsbDemodulator.pipelined(System.in)) {
+            demodulator.setAllDownLinkFormats(true);
+            RawMessageView rawMessage;
+            while ((rawMessage = demodulator.nextMessageView()) != null) {
+                Message message = MessageParser.parse(rawMessage);
+                if (message != null) messageQueue.add(message);
             }
+        }
     }
 
     /**
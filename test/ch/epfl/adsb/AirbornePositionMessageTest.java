@@ -2,6 +2,7 @@ package ch.epfl.adsb;
 
 import ch.epfl.javions.ByteString;
 import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Units;
 import ch.epfl.javions.adsb.AirbornePositionMessage;
 import ch.epfl.javions.adsb.RawMessage;
 import ch.epfl.javions.aircraft.IcaoAddress;
@@ -378,4 +379,48 @@ class AirbornePositionMessageTest
             assertNull(airbornePositionMessage);
         }
     }
+
+    // Straightforward decoding of the ALT attribute, used to check the table of the altitudes.
+    private static double referenceAltitude(int altitude) {
+        if ((altitude & (1 << 4)) != 0) {
+            var feet = (((altitude >> 5) << 4) | (altitude & 0xF)) * 25 - 1000;
+            return Units.convertFrom(feet, Units.Length.FOOT);
+        }
+
+        // D1 D2 D4 A1 A2 A4 B1 B2 B4 C1 C2 C4
+        var positions = new int[]{4, 2, 0, 10, 8, 6, 5, 3, 1, 11, 9, 7};
+        var code = 0;
+        for (var position : positions)
+            code = (code << 1) | ((altitude >> position) & 1);
+
+        var hundreds = fromGray(code & 0b111);
+        var fiveHundreds = fromGray(code >> 3);
+        if (hundreds == 0 || hundreds == 5 || hundreds == 6) return Double.NaN;
+        if (hundreds == 7) hundreds = 5;
+        if (fiveHundreds % 2 == 1) hundreds = 6 - hundreds;
+        return Units.convertFrom(-1300 + hundreds * 100 + fiveHundreds * 500, Units.Length.FOOT);
+    }
+
+    private static int fromGray(int gray) {
+        var value = 0;
+        for (; gray != 0; gray >>= 1)
+            value ^= gray;
+        return value;
+    }
+
+    @Test
+    void airbornePositionMessageOfDecodesAllAltitudesLikeReference() {
+        var icaoAddress = new IcaoAddress("4B17E5");
+        for (var altitude = 0; altitude < 1 << 12; altitude += 1) {
+            var payload = ((long) altitude) << 36;
+            var message = AirbornePositionMessage.of(100, icaoAddress, payload);
+            var expected = referenceAltitude(altitude);
+            if (Double.isNaN(expected)) {
+                assertNull(message);
+            } else {
+                assertNotNull(message);
+                assertEquals(expected, message.altitude(), 1e-9);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -234,4 +234,44 @@ class AircraftIdentificationMessageTest
             assertNull(aircraftIdentificationMessage);
         }
     }
+
+    // ME attribute of type code 4 and category 0 containing the given call sign.
+    private static long identificationPayload(String callSign) {
+        var characters = 0L;
+        for (var i = 0; i < 8; i += 1) {
+            var c = i < callSign.length() ? callSign.charAt(i) : ' ';
+            characters = (characters << 6) | (Character.isLetter(c) ? c - 'A' + 1 : c);
+        }
+        return (4L << 51) | characters;
+    }
+
+    @Test
+    void aircraftIdentificationMessageOfTrimsOnlyTrailingSpaces() {
+        var icao = new IcaoAddress("4D2228");
+        for (var callSign : List.of("RYR7JD", " AB 12", "ABCDEFGH", "", "A      B")) {
+            var message = AircraftIdentificationMessage.of(100, icao, identificationPayload(callSign));
+            assertNotNull(message);
+            assertEquals(callSign, message.callSign().string());
+        }
+    }
+
+    @Test
+    void aircraftIdentificationMessageOfReusesCallSigns() {
+        var icao = new IcaoAddress("4D2228");
+        var payload = identificationPayload("EZY12AB");
+        var first = AircraftIdentificationMessage.of(100, icao, payload);
+        var second = AircraftIdentificationMessage.of(200, icao, payload);
+        assertSame(first.callSign(), second.callSign());
+        assertEquals(new CallSign("EZY12AB"), second.callSign());
+    }
+
+    @Test
+    void aircraftIdentificationMessageOfPayloadReturnsNullForInvalidCharacters() {
+        var icao = new IcaoAddress("4D2228");
+        var payload = identificationPayload("ABCDEFGH");
+        for (var invalid : new int[]{0, 27, 31, 33, 47, 58, 63}) {
+            var invalidPayload = payload & ~(0x3FL << 18) | ((long) invalid << 18);
+            assertNull(AircraftIdentificationMessage.of(100, icao, invalidPayload));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ch.epfl.adsb;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.adsb.AllCallReplyMessage;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllCallReplyMessageTest {
+    static byte[] allCall(String header, int interrogator) {
+        var parity = new Crc24(Crc24.GENERATOR).crc(HexFormat.of().parseHex(header)) ^ interrogator;
+        return HexFormat.of().parseHex(header + HexFormat.of().toHexDigits(parity).substring(2));
+    }
+
+    @Test
+    void allCallReplyMessageConstructorThrowsWithInvalidArguments() {
+        var address = new IcaoAddress("4B17E5");
+        assertThrows(NullPointerException.class, () -> new AllCallReplyMessage(100, null, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AllCallReplyMessage(-1, address, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AllCallReplyMessage(100, address, 8));
+    }
+
+    @Test
+    void allCallReplyMessageOfDecodesAddressAndCapability() {
+        var rawMessage = RawMessage.of(100, allCall("5D4B17E5", 0));
+        assertNotNull(rawMessage);
+        var message = AllCallReplyMessage.of(rawMessage);
+        assertEquals(100, message.timeStampNs());
+        assertEquals(new IcaoAddress("4B17E5"), message.icaoAddress());
+        assertEquals(5, message.capability());
+    }
+}
@@ -0,0 +1,51 @@
+package ch.epfl.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Units;
+import ch.epfl.javions.adsb.AltitudeReplyMessage;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AltitudeReplyMessageTest {
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private static final int ADDRESS = 0x4B17E5;
+
+    static RawMessage reply(int df, int header, int size) {
+        var hex = HexFormat.of().toHexDigits((df << 27) | header) + "00".repeat(size - 7);
+        var parity = CRC24.crc(HexFormat.of().parseHex(hex)) ^ ADDRESS;
+        return new RawMessage(100, ByteString.ofHexadecimalString(hex + HexFormat.of().toHexDigits(parity).substring(2)));
+    }
+
+    @Test
+    void altitudeReplyMessageConstructorThrowsWithInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new AltitudeReplyMessage(100, null, 1000));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AltitudeReplyMessage(-1, new IcaoAddress("4B17E5"), 1000));
+    }
+
+    @Test
+    void altitudeReplyMessageOfDecodesAltitudeWithQBit() {
+        // 38000 ft : N = 1560, split around the M bit (6) and the Q bit (4)
+        var n = (38000 + 1000) / 25;
+        var ac = ((n >> 5) << 7) | (((n >> 4) & 1) << 5) | (1 << 4) | (n & 0xF);
+        for (var df : new int[]{4, 20}) {
+            var message = AltitudeReplyMessage.of(reply(df, ac, df == 4 ? 7 : 14));
+            assertNotNull(message);
+            assertEquals(100, message.timeStampNs());
+            assertEquals(new IcaoAddress("4B17E5"), message.icaoAddress());
+            assertEquals(Units.convertFrom(38000, Units.Length.FOOT), message.altitude(), 1e-6);
+        }
+    }
+
+    @Test
+    void altitudeReplyMessageOfReturnsNullForUnknownOrMetricAltitude() {
+        assertNull(AltitudeReplyMessage.of(reply(4, 0, 7)));
+        assertNull(AltitudeReplyMessage.of(reply(4, (1 << 6) | 0x123, 7)));
+    }
+}
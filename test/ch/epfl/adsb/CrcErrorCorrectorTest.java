@@ -0,0 +1,88 @@
+package ch.epfl.adsb;
+
+import ch.epfl.javions.adsb.CrcErrorCorrector;
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrcErrorCorrectorTest {
+    private final static byte[] MESSAGE = HexFormat.of().parseHex("8D4B17E5F8210002004BB8B1F1AC");
+    private final static int MESSAGE_BITS = RawMessage.LENGTH * Byte.SIZE;
+
+    private static byte[] flipped(int... bits) {
+        byte[] bytes = MESSAGE.clone();
+        for (int bit : bits)
+            bytes[bit / Byte.SIZE] ^= (byte) (1 << (7 - bit % Byte.SIZE));
+        return bytes;
+    }
+
+    @Test
+    void crcErrorCorrectorConstructorThrowsOnInvalidMaxBits() {
+        assertThrows(IllegalArgumentException.class, () -> new CrcErrorCorrector(0));
+        assertThrows(IllegalArgumentException.class, () -> new CrcErrorCorrector(3));
+        assertDoesNotThrow(() -> new CrcErrorCorrector(1));
+        assertDoesNotThrow(() -> new CrcErrorCorrector(2));
+    }
+
+    @Test
+    void crcErrorCorrectorAcceptsValidMessageUnchanged() {
+        CrcErrorCorrector corrector = new CrcErrorCorrector(2);
+        byte[] bytes = MESSAGE.clone();
+
+        assertTrue(corrector.correct(bytes));
+        assertArrayEquals(MESSAGE, bytes);
+        assertEquals(0, corrector.correctedCount());
+        assertEquals(0, corrector.rejectedCount());
+    }
+
+    @Test
+    void crcErrorCorrectorCorrectsEverySingleBitErrorOutsideDf() {
+        CrcErrorCorrector corrector = new CrcErrorCorrector(1);
+        for (int bit = 5; bit < MESSAGE_BITS; bit++) {
+            byte[] bytes = flipped(bit);
+            assertTrue(corrector.correct(bytes));
+            assertArrayEquals(MESSAGE, bytes);
+        }
+        assertEquals(MESSAGE_BITS - 5, corrector.correctedCount());
+        assertEquals(0, corrector.rejectedCount());
+    }
+
+    @Test
+    void crcErrorCorrectorCorrectsTwoBitErrorsOnlyWhenEnabled() {
+        CrcErrorCorrector single = new CrcErrorCorrector(1);
+        CrcErrorCorrector pairs = new CrcErrorCorrector(2);
+
+        for (int i = 5; i < MESSAGE_BITS; i += 7) {
+            for (int j = i + 1; j < MESSAGE_BITS; j += 11) {
+                assertFalse(single.correct(flipped(i, j)));
+
+                byte[] bytes = flipped(i, j);
+                assertTrue(pairs.correct(bytes));
+                assertArrayEquals(MESSAGE, bytes);
+            }
+        }
+        assertEquals(0, single.correctedCount());
+        assertEquals(pairs.correctedCount(), single.rejectedCount());
+    }
+
+    @Test
+    void crcErrorCorrectorRejectsThreeBitErrorsAndDfErrors() {
+        CrcErrorCorrector corrector = new CrcErrorCorrector(2);
+        byte[] threeBits = flipped(10, 50, 90);
+        byte[] dfBit = flipped(2);
+
+        assertFalse(corrector.correct(threeBits));
+        assertFalse(corrector.correct(dfBit));
+        assertArrayEquals(flipped(10, 50, 90), threeBits);
+        assertEquals(2, corrector.rejectedCount());
+        assertEquals(0, corrector.correctedCount());
+    }
+
+    @Test
+    void crcErrorCorrectorThrowsOnInvalidLength() {
+        assertThrows(IllegalArgumentException.class, () -> new CrcErrorCorrector(1).correct(new byte[7]));
+    }
+}
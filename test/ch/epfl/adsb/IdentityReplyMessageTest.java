@@ -0,0 +1,31 @@
+package ch.epfl.adsb;
+
+import ch.epfl.javions.adsb.IdentityReplyMessage;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityReplyMessageTest {
+    @Test
+    void identityReplyMessageConstructorThrowsWithInvalidArguments() {
+        var address = new IcaoAddress("4B17E5");
+        assertThrows(NullPointerException.class, () -> new IdentityReplyMessage(100, null, 7700));
+        assertThrows(IllegalArgumentException.class, () -> new IdentityReplyMessage(-1, address, 7700));
+        assertThrows(IllegalArgumentException.class, () -> new IdentityReplyMessage(100, address, 7778));
+    }
+
+    @Test
+    void identityReplyMessageOfDecodesSquawk() {
+        // C1 A1 C2 A2 C4 A4 X B1 D1 B2 D2 B4 D4
+        var emergency = 0b0_1_0_1_0_1_0_1_0_1_0_1_0;
+        var squawk1234 = 0b1_1_1_0_0_0_0_0_0_1_0_0_1;
+        for (var df : new int[]{5, 21}) {
+            var size = df == 5 ? 7 : 14;
+            var message = IdentityReplyMessage.of(AltitudeReplyMessageTest.reply(df, emergency, size));
+            assertEquals(7700, message.squawk());
+            assertEquals(new IcaoAddress("4B17E5"), message.icaoAddress());
+            assertEquals(1234, IdentityReplyMessage.of(AltitudeReplyMessageTest.reply(df, squawk1234, size)).squawk());
+        }
+    }
+}
@@ -110,4 +110,65 @@ class MessageParserTest
             assertNull(message);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void messageParserParsesModeSReplies() {
+        var allCall = new RawMessage(100, new ByteString(AllCallReplyMessageTest.allCall("5D4B17E5", 0x12)));
+        assertTrue(MessageParser.parse(allCall) instanceof AllCallReplyMessage);
+
+        var altitudeCode = (1 << 4) | 0x0F;
+        assertTrue(MessageParser.parse(AltitudeReplyMessageTest.reply(4, altitudeCode, 7)) instanceof AltitudeReplyMessage);
+        assertTrue(MessageParser.parse(AltitudeReplyMessageTest.reply(20, altitudeCode, 14)) instanceof AltitudeReplyMessage);
+        assertTrue(MessageParser.parse(AltitudeReplyMessageTest.reply(5, 0x0AAA, 7)) instanceof IdentityReplyMessage);
+        assertTrue(MessageParser.parse(AltitudeReplyMessageTest.reply(21, 0x0AAA, 14)) instanceof IdentityReplyMessage);
+        assertNull(MessageParser.parse(AltitudeReplyMessageTest.reply(0, 0, 7)));
+    }
+
+    @Test
+    void messageParserParsesDf18OnlyWithIcaoAddress() {
+        var crcComputer = new Crc24(Crc24.GENERATOR);
+        for (var cf = 0; cf < 8; cf += 1) {
+            var header = "%02X48502099440994083817".formatted((18 << 3) | cf);
+            var crc = crcComputer.crc(HexFormat.of().parseHex(header));
+            var df18 = HexFormat.of().parseHex(header + HexFormat.of().toHexDigits(crc).substring(2));
+            var message = MessageParser.parse(RawMessage.of(100, df18));
+            if (cf == 0) assertTrue(message instanceof AirborneVelocityMessage);
+            else assertNull(message);
+
+            var view = new RawMessageView(df18);
+            view.setTimeStampNs(100);
+            assertEquals(message, MessageParser.parse(view));
+        }
+    }
+
+    @Test
+    void messageParserParsesViewsLikeRawMessages() {
+        var variants = List.of(
+                "8D3991E10B0464B1CD43206F07E8",
+                "8D406666580D1652395CBE0A4D3E",
+                "8D485020994409940838175B284F",
+                "8D48502001440994083817BFA5E8",
+                "8D4B17E5F8210002004BB8B1F1AC");
+        for (String variant : variants) {
+            var bytes = HexFormat.of().parseHex(variant);
+            var view = new RawMessageView(bytes.clone());
+            view.setTimeStampNs(100);
+            assertEquals(MessageParser.parse(RawMessage.of(100, bytes)), MessageParser.parse(view));
+        }
+    }
+
+    @Test
+    void messageParserOverloadsTakingPayloadGiveSameMessages() {
+        var identification = RawMessage.of(100, HexFormat.of().parseHex("8D3991E10B0464B1CD43206F07E8"));
+        var position = RawMessage.of(100, HexFormat.of().parseHex("8D406666580D1652395CBE0A4D3E"));
+        var velocity = RawMessage.of(100, HexFormat.of().parseHex("8D485020994409940838175B284F"));
+
+        assertEquals(AircraftIdentificationMessage.of(identification), AircraftIdentificationMessage.of(
+                100, identification.icaoAddress(), identification.payload()));
+        assertEquals(AirbornePositionMessage.of(position), AirbornePositionMessage.of(
+                100, position.icaoAddress(), position.payload()));
+        assertEquals(AirborneVelocityMessage.of(velocity), AirborneVelocityMessage.of(
+                100, velocity.icaoAddress(), velocity.payload()));
+        assertEquals(identification.icaoAddress().value(), identification.icaoAddressValue());
+    }
+}
@@ -321,4 +321,63 @@ class RawMessageTest
             assertEquals(expectedTypeCode, rawMessage.typeCode());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void rawMessageFrameSizeReturnsSizeOfDecodedFormats() {
+        for (var ca = 0; ca < 1 << 3; ca += 1) {
+            for (var df = 0; df < 1 << 5; df += 1) {
+                var byte0 = (df << 3) | ca;
+                var expectedSize = switch (df) {
+                    case 4, 5, 11 -> 7;
+                    case 17, 18, 20, 21 -> 14;
+                    default -> 0;
+                };
+                assertEquals(expectedSize, RawMessage.frameSize((byte) byte0));
+            }
+        }
+    }
+
+    @Test
+    void rawMessageConstructorAcceptsShortMessages() {
+        assertDoesNotThrow(() -> new RawMessage(0, new ByteString(new byte[RawMessage.SHORT_LENGTH])));
+    }
+
+    @Test
+    void rawMessageIcaoAddressIsRecoveredFromParityOfSurveillanceReplies() {
+        for (var df : new int[]{4, 5, 20, 21}) {
+            var rawMessage = AltitudeReplyMessageTest.reply(df, 0x1234, RawMessage.frameSize((byte) (df << 3)));
+            assertEquals(0, RawMessage.crcMask(df));
+            assertEquals(new IcaoAddress("4B17E5"), rawMessage.icaoAddress());
+        }
+        assertEquals(0xFFFF80, RawMessage.crcMask(11));
+        assertEquals(0xFFFFFF, RawMessage.crcMask(17));
+    }
+
+    @Test
+    void rawMessagePowersAreUnknownByDefault() {
+        var rawMessage = new RawMessage(0, bytes);
+        assertTrue(Double.isNaN(rawMessage.signalPower()));
+        assertTrue(Double.isNaN(rawMessage.noisePower()));
+        assertTrue(Double.isNaN(rawMessage.snr()));
+        assertTrue(Double.isNaN(rawMessage.rssi()));
+    }
+
+    @Test
+    void rawMessageSnrAndRssiWorkOnKnownValues() {
+        var rawMessage = new RawMessage(0, bytes, 2d * 8192 * 8192 / 100, 2d * 8192 * 8192 / 10_000);
+        assertEquals(20, rawMessage.snr(), 1e-9);
+        assertEquals(-20, rawMessage.rssi(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new RawMessage(0, bytes, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RawMessage(0, bytes, 1, -1));
+    }
+
+    @Test
+    void rawMessageIdentityIgnoresPowers() {
+        var rawMessage = new RawMessage(100, bytes);
+        var measured = new RawMessage(100, bytes, 1000, 10);
+        assertEquals(rawMessage, measured);
+        assertEquals(rawMessage.hashCode(), measured.hashCode());
+        assertEquals("RawMessage[timeStampNs=100, bytes=" + bytes + "]", measured.toString());
+        assertNotEquals(rawMessage, new RawMessage(101, bytes, 1000, 10));
+    }
+}
@@ -0,0 +1,64 @@
+package ch.epfl.adsb;
+
+import ch.epfl.javions.adsb.MessageParser;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageView;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawMessageViewTest {
+    private static final List<String> MESSAGES = List.of(
+            "8D4B17E5F8210002004BB8B1F1AC",
+            "8D49529958B302E6E15FA352306B",
+            "8D39D300990CE72C70089058AD77",
+            "8D4D2228234994B7284820323B81",
+            "8F01024C99256F1F78048C290D2D");
+
+    @Test
+    void rawMessageViewConstructorThrowsWithInvalidLength() {
+        assertThrows(IllegalArgumentException.class, () -> new RawMessageView(new byte[RawMessage.LENGTH - 1]));
+        assertThrows(IllegalArgumentException.class, () -> new RawMessageView(new byte[RawMessage.LENGTH + 1]));
+    }
+
+    @Test
+    void rawMessageViewSetTimeStampNsThrowsWithNegativeTimeStamp() {
+        var view = new RawMessageView(new byte[RawMessage.LENGTH]);
+        assertThrows(IllegalArgumentException.class, () -> view.setTimeStampNs(-1));
+    }
+
+    @Test
+    void rawMessageViewAttributesAreThoseOfRawMessage() {
+        var bytes = new byte[RawMessage.LENGTH];
+        var view = new RawMessageView(bytes);
+        var timeStampNs = 100L;
+        for (var message : MESSAGES) {
+            System.arraycopy(HexFormat.of().parseHex(message), 0, bytes, 0, RawMessage.LENGTH);
+            view.setTimeStampNs(timeStampNs);
+            var rawMessage = RawMessage.of(timeStampNs, bytes);
+
+            assertNotNull(rawMessage);
+            assertEquals(rawMessage.timeStampNs(), view.timeStampNs());
+            assertEquals(rawMessage.downLinkFormat(), view.downLinkFormat());
+            assertEquals(rawMessage.icaoAddress().string(), HexFormat.of().withUpperCase()
+                    .toHexDigits(view.icaoAddressValue(), 6));
+            assertEquals(rawMessage.payload(), view.payload());
+            assertEquals(rawMessage.typeCode(), view.typeCode());
+            assertEquals(rawMessage, view.toRawMessage());
+            assertEquals(MessageParser.parse(rawMessage), MessageParser.parse(view));
+            timeStampNs += 1000;
+        }
+    }
+
+    @Test
+    void rawMessageViewToRawMessageIsNotAffectedByLaterMessages() {
+        var bytes = HexFormat.of().parseHex(MESSAGES.get(0));
+        var view = new RawMessageView(bytes);
+        var rawMessage = view.toRawMessage();
+        bytes[1] = 0;
+        assertEquals(MESSAGES.get(0), rawMessage.bytes().toString());
+    }
+}
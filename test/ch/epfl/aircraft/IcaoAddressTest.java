@@ -46,4 +46,33 @@ class IcaoAdressTest {
             new IcaoAddress("ABCDEF");
         });
     }
+
+    @Test
+    void icaoAddressOfThrowsWithInvalidValue() {
+        assertThrows(IllegalArgumentException.class, () -> IcaoAddress.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> IcaoAddress.of(1 << 24));
+        assertDoesNotThrow(() -> IcaoAddress.of(0));
+        assertDoesNotThrow(() -> IcaoAddress.of((1 << 24) - 1));
+    }
+
+    @Test
+    void icaoAddressOfReturnsSameAddressForSameValue() {
+        var address = IcaoAddress.of(0x4B17E5);
+        assertSame(address, IcaoAddress.of(0x4B17E5));
+        assertNotSame(address, IcaoAddress.of(0x4B17E6));
+    }
+
+    @Test
+    void icaoAddressOfIsEqualToAddressOfString() {
+        for (var string : new String[]{"4B17E5", "000000", "0FABD8", "FFFFFF"}) {
+            var fromString = new IcaoAddress(string);
+            var fromValue = IcaoAddress.of(Integer.parseInt(string, 16));
+            assertEquals(fromString, fromValue);
+            assertEquals(fromString.hashCode(), fromValue.hashCode());
+            assertEquals(string, fromValue.string());
+            assertEquals(fromString.value(), fromValue.value());
+            assertEquals(fromString.toString(), fromValue.toString());
+        }
+        assertNotEquals(new IcaoAddress("4B17E5"), new IcaoAddress("4B17E6"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package ch.epfl.demodulation;
+
+import ch.epfl.javions.demodulation.DemodulatorGroup;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DemodulatorGroupTest {
+    private static final int BIAS = 1 << 11;
+    private static final String TINY_MESSAGE = "8D44CE6858A3860B09465B3D3696";
+
+    private static InputStream delayedTinySamples(int powerSamplesDelay) {
+        var samples = Base64.getMimeDecoder().decode(TinySamples.SAMPLES_BASE64);
+        var bytes = new byte[powerSamplesDelay * 2 * Short.BYTES + samples.length];
+        for (var i = 0; i < bytes.length - samples.length; i += 2) {
+            bytes[i] = (byte) (BIAS & 0xFF);
+            bytes[i + 1] = (byte) (BIAS >> Byte.SIZE);
+        }
+        System.arraycopy(samples, 0, bytes, bytes.length - samples.length, samples.length);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Test
+    void demodulatorGroupReturnsNullForEmptyStreams() throws IOException {
+        var group = new DemodulatorGroup(List.of(InputStream.nullInputStream(), InputStream.nullInputStream()));
+        assertNull(group.nextMessage());
+    }
+
+    @Test
+    void demodulatorGroupMergesMessagesInTimeStampOrder() throws IOException {
+        var group = new DemodulatorGroup(List.of(
+                delayedTinySamples(3000),
+                InputStream.nullInputStream(),
+                delayedTinySamples(0),
+                delayedTinySamples(1000)));
+
+        for (var expectedTimeStampNs : List.of(14100L, 114100L, 314100L)) {
+            var message = group.nextMessage();
+            assertNotNull(message);
+            assertEquals(expectedTimeStampNs, message.timeStampNs());
+            assertEquals(TINY_MESSAGE, message.bytes().toString());
+        }
+        assertNull(group.nextMessage());
+    }
+
+    @Test
+    void demodulatorGroupRethrowsStreamErrors() throws IOException {
+        var messageReturned = new CountDownLatch(1);
+        var failingStream = new InputStream() {
+            private int bytesRead;
+
+            @Override
+            public int read() throws IOException {
+                if (bytesRead++ > (1 << 20)) {
+                    try {
+                        messageReturned.await();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                    throw new IOException();
+                }
+                return 0;
+            }
+        };
+        var group = new DemodulatorGroup(List.of(failingStream, delayedTinySamples(0)));
+        assertNotNull(group.nextMessage());
+        messageReturned.countDown();
+        assertThrows(IOException.class, group::nextMessage);
+    }
+
+    private static InputStream endlessStream(boolean[] closed, int index) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                if (closed[index]) throw new IOException();
+                return 0;
+            }
+
+            @Override
+            public void close() {
+                closed[index] = true;
+            }
+        };
+    }
+
+    @Test
+    void demodulatorGroupRethrowsUncheckedErrorsWithoutWaitingForOtherReceivers() throws IOException {
+        var closed = new boolean[1];
+        var failingStream = new InputStream() {
+            private int bytesRead;
+
+            @Override
+            public int read() {
+                if (bytesRead++ > (1 << 20)) throw new IllegalStateException();
+                return 0;
+            }
+        };
+        try (var group = new DemodulatorGroup(List.of(endlessStream(closed, 0), failingStream))) {
+            var e = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IOException.class,
+                    group::nextMessage));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void demodulatorGroupCloseStopsThreadsAndClosesStreams() throws IOException, InterruptedException {
+        var closed = new boolean[2];
+        var group = new DemodulatorGroup(List.of(endlessStream(closed, 0), endlessStream(closed, 1)));
+        group.close();
+        assertArrayEquals(new boolean[]{true, true}, closed);
+
+        for (var thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("DemodulatorGroup")) {
+                thread.join(1000);
+                assertFalse(thread.isAlive());
+            }
+        }
+    }
+}
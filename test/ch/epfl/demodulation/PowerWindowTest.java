@@ -11,6 +11,7 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -285,6 +286,30 @@ class PowerWindowTest
         }
     }
 
+    @Test
+    void powerWindowAdvanceByMatchesRepeatedAdvance() throws IOException {
+        var bytes = new byte[BATCH_SIZE_BYTES * 6];
+        new Random(2023).nextBytes(bytes);
+        var offsets = new int[]{0, 1, STANDARD_WINDOW_SIZE, BATCH_SIZE - STANDARD_WINDOW_SIZE - 2, 3,
+                BATCH_SIZE, 2 * BATCH_SIZE + 17, 5, BATCH_SIZE - 1};
+
+        try (var s1 = new ByteArrayInputStream(bytes); var s2 = new ByteArrayInputStream(bytes)) {
+            var jumping = new PowerWindow(s1, STANDARD_WINDOW_SIZE);
+            var stepping = new PowerWindow(s2, STANDARD_WINDOW_SIZE);
+            for (var offset : offsets) {
+                jumping.advanceBy(offset);
+                for (var i = 0; i < offset; i += 1) stepping.advance();
+
+                assertEquals(stepping.position(), jumping.position());
+                assertEquals(stepping.isFull(), jumping.isFull());
+                if (stepping.isFull()) {
+                    for (var i = 0; i < STANDARD_WINDOW_SIZE; i += 1)
+                        assertEquals(stepping.get(i), jumping.get(i));
+                }
+            }
+        }
+    }
+
     private static byte[] bytesForZeroSamples(int batchesCount) {
         var bytes = new byte[BATCH_SIZE_BYTES * batchesCount];
 
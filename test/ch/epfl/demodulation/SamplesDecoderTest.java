@@ -8,6 +8,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -157,4 +158,28 @@ class SamplesDecoderTest
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void samplesDecoderOfChannelReadsSameSamplesAsStream() throws IOException {
+        var batchSize = 1000;
+        try (var byteStream = new ByteArrayInputStream(getSampleBytes());
+             var channel = Channels.newChannel(new ByteArrayInputStream(getSampleBytes()))) {
+            var streamDecoder = new SamplesDecoder(byteStream, batchSize);
+            var channelDecoder = SamplesDecoder.ofChannel(channel, batchSize);
+            var expectedBatch = new short[batchSize];
+            var actualBatch = new short[batchSize];
+            for (var i = 0; i <= SAMPLES_COUNT / batchSize; i += 1) {
+                var expectedRead = streamDecoder.readBatch(expectedBatch);
+                assertEquals(expectedRead, channelDecoder.readBatch(actualBatch));
+                assertArrayEquals(expectedBatch, actualBatch);
+            }
+        }
+    }
+
+    @Test
+    void samplesDecoderOfChannelThrowsWithNullChannel() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SamplesDecoder.ofChannel(null, 1));
+    }
+}
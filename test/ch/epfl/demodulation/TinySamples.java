@@ -0,0 +1,111 @@
+package ch.epfl.demodulation;
+
+/**
+ * The samples of a single message, in Base64, shared by the tests of the demodulators.
+ */
+final class TinySamples {
+    static final String SAMPLES_BASE64 = """
+            8AfzB/QH+gfqB/MH8wfyB+sH+Qf1B/QH+Qf6B+4H7gf2B/MH8wf9B+0H7wfxB/oH7Qf8B/QH/Af3B+0H
+            8Af2B/IH6gf1B/kH9QfvB/EH+wfyB/gH+Qf1B+gH8Qf2B+QH/wf5BwQI8gf3B+kH/QftB/QH+QfwB/EH
+            /gf5B/cH+AfuB/UH6QfyB/IH8wfvB+0H8Qf8B+wH8Qf6B/kH8Qf5B+0HAAj6BwAI9gf4B/QH6wf7B+wH
+            9AftB/QH8QfzB+4H/gfzB/AH9AfzB/sH+Qf7B/sH+Qf7B+wH/Af3B/IH8wfzB+kH8AfzB/YH6wf0B+0H
+            9AfuB/AH9wf6B/AH+wf6B/YH8wftBwEI9QfvB/kH8gf7B/IH8gf7B/QH8QfxB/EH+wfyB/cH8Af3B/YH
+            9wfzB/sH+Af0B+8H8wf6B+wH9AfxB/kH+AfxB/MH7QfzB/gH8gf+B/EH8Af7B/cH9Qf1B+kH9Qf1B+4H
+            8wfpB/sH7wf3B/EH/Qf+B/YH7gfnBwAI9Af0B/cH8Qf2B/EH8Af1B/IH8Qf0B/sH9wf2B/YH6wf2B+kH
+            /AfuB/YH9QfpB/AH9Af7B/8H+wf2B/YH7gf3B/AH6wfyB/IH+wcACPoH+Af2B/cH+Af6B+4H7gfvB/QH
+            6wf+B+wH9QfuB/QH/QfuB/QH7wf/B/gH/gfwB/MH9Af4B/UH9wf4B/UH+AfoB/sH8wfuB/IH9wfzB/QH
+            +Qf0B+sH9gcFCOAHAwgpCOwHuwfyBxUIAQjXB9gH/QcICPcH+Af7B/gH9AfwB+kH9wfvB74HBgglCOsH
+            vwf/BxMI+gfiB9sH9QfzBwII8wcBCPsHBAjuB/YH+gf+B/AH7wfuB/EH/gfwB/UH+wfqB/MH7wfyB/UH
+            7QfwB/YH8Af6B/oH9gfwB+sH+wf0B/IH9AfzB/EHCAjzB70HAAgdCPgHxwf8Bw8IDQjvB+4H7AfnB+sH
+            8gf1B/MH9AcFCAgI1gfWBxgIGQjbB9MHEggVCPcH7AfnB+AH9Af7B/YH+Af0B/cH8wf2B+kH6wfyBwEI
+            9Af0B/YH8wfxB/YH+wf3B/kH/Qf1B/cH8Qf+B+8H9gftB+sH9gf0B/IH+AfzB/gH9wfzB/cH7gfsB/cH
+            6wfwB/4H8wf0B/AH+QfyB+4H9Af1B/oH9QfuB+4HCwjbB8IHEggjCPgHzwcACBIIBgjpB+IH7AftB+0H
+            9Qf1B/oH9gfvB/kH9gf1B/QH7QftB/YH9wf8B/IH2gftBzAI+gfKB+AHGAgCCNoH2gf0B/oH+wcACP0H
+            /wf8B/IH6QfxBwAI8Ae+B/oHHwj8B8UH5QcVCAwI/gfoB/IH4gftB+8H5gf7B/MH7QcWCO4HwQf5By0I
+            8QfQB/QHLwgACMgH8gcUCAIIwQf2ByYIAgjKB9oH8Af2B/sH+Af2B/cH9Qf1B/YH/AfoB80H9AchCP0H
+            xwf6BxwICwjcB9wH8AfyB/8H+wf6B/MH9wf+B/sH9gf/B+sH/QcCCPcH7wfuB/AH9wf5B8wH3gcgCAcI
+            yAffBxsIBAjXB9kHHQgLCMQH2AccCAsI3AffB/0H/Af/B/YH/wfzB/UH9Af2B/MH9Qf1B/8H6wfsBwAI
+            9Qf1B/YH9QcBCOYHyAcGCCsI4QfBB/8HJQjgB70HAAgqCO0Hxgf9ByEI4wfJB+wHCggRCAQI/gfzB/AH
+            8gfxB+UH7wf1B/0H7wf9B/oH+QfzB+gH+Af3B/oHAQjfB9kHDwgVCNMH2AcICBYI/wfiB9sH7Qf2B/kH
+            7Af8B+4H+Af2B+0HDwgaCNcH1QcBCBsI5QfLB+gHAggACP8H+wfxB/wH7gf3B/kH3wfhBx4ICwjCB9YH
+            HAgICMgH4QcbCBMIxQfdByMICAjMB+YHIggGCO4H4wfxB+8H+Af0B/cH9gfuB/wH8gf9B/oH9AftB+MH
+            +AcACPkH7gftBwUICAjIB+QHIAgJCMUH1AcMCAUI9gfvB/EH6gfxB+kH+Af0B/gH9AflB+QHHwgVCMkH
+            4gcmCA0I0gfpBxwI/wfFB+QHHAgECMMH5wcOCBgI8AfsB+cH6gf0B+oH+wf4B/kH6wf/Bx8I3AfPBwgI
+            HwjlB+EHAQgICAQI+Qf3B+gH9AfrB/EH6QfvB/IH9gfsB/sH7Af6B/MH9gf8B/oH7QfsBx0I7AfBB/oH
+            HAjzB8sH8AcQCA4I7wfvB/IH9wfzB+cH5gftB/4H9AfMB/cHLQgBCM0H7QclCPYHxQf7ByYI7gfCB/0H
+            HgjzB8YH+AcNCAsI8Qf3B+oH6gfyB+8H+Af0B+gH4AcFCB4IyQfRBxUIBwjYB9sHCQgOCA4I/Qf/B/EH
+            7wfyB/kH9QfzB98HFAj8B7oH1gcVCA8I0gfeBwEICQj+B/4H9wf0B/AH8gfzB/QH8QfxB/AH7QftB/sH
+            /Af4B/sH8wf7B9sH6wcwCAMIvAfcBywI+gfSB94H+AcBCPUHAQj9B/YH8Qf2B+gH6wcHCPoHvgfnBxUI
+            AgjKB+wHJgj4B8YH8wcjCPwHzQf9BxsI9wfTB+kH9Qf+B/YH+QfyB/UHAQj9B+4H9gfkB8IHEAgiCNYH
+            1gcLCBoI8gfSB9sH9gf6B/sH/wftB/kH+QcDCPQH9wfuB/8H7Qf2B/AH8Af7B+8H+Qf+B8cH2QcwCAUI
+            ygfkByEI9gfEB98HKggACMYH7gcmCPIH1AfnBwsIDwj1B/oH+Qf5B/EH9wfqB+0H+gfxBwAI8wf2B+4H
+            +Qf3B/cH9AftBwoI3QfNBxYIIQjeB80HDQgaCPYH6AfnB+wH8gfwB+4H/wf3B/sH+QfeBxQIHgjYB9MH
+            DggcCNgH0gfzBwQIAAj8B/gH7QftB+0H8QfpB/QH3AcICB4I1AfNBxAIFQjdB9wH9Af/BwEIBAj3B/EH
+            8wfzB+kH8gftB9QHFwgYCNAHzQcOCA4I0AfaBx4IEAjOB9MHIggRCMwH4QcXCAoI5wfrB+4H+QfrB/MH
+            +wfmB/YH+AcECPoH/QcACPEH/QfzB/IH6QfxB+MHBwgGCL8H4gcjCAQI0gflByMIAQi/B+4HGAj6B8sH
+            8gcWCPgH0gfgB/MHBggOCPYH/QcBCPUH9Qf+B+wH6AccCPYHwAfqBxEI7AfSB+IHBggNCO4H+Af6B+0H
+            8QfxB+YH8AfrB/YH/wf1B/UH/Qf6B/cH9wf0B+8H7QcdCA0ItgfjByEI/wfOB+MHAggFCPMH/gfsB/EH
+            /QfzB+oH9gf2B+8HvAf0ByEI6gfLB/EHHwj9B+MH4Af5B/QHAQgACAII9wf2B/MHBAjgB9UHGwgVCNkH
+            1gcXCBEIvwfYBxwIFAjMB9QHIAgMCMMH1AcNCBcI+wfvB+4H/AflB+0H/QfvB/MH7wf1B/kH+Qf/B/kH
+            /QfyB/0H+wfyB/gHFggCCLkH5QcfCOgHuQfrBw8I7QfGB/sHGwjtB8AH/QceCPcH3gfhB/gH9wf4B/kH
+            /QcACPYHAgj7BwEI9Qf5B/cH5Qf0B/YH8Qf3B+sH5wcYCAAIuAfdBxoIAwjHB+gH+gcJCPgH+Af0B/QH
+            +gf8B+8H+gf8B/8HywfnBy8I6wfJB/sHGwgECOAH1QfjB/cHAQjoB/QHAwj5B/YHCAjrB8kHDAg1CPEH
+            0QcECB4I0gfLBwoIGQjhB8YHEAgWCNQHwwcBCA4IAwj3B+kH6AfxB+0H9wf0B/4H9Af0BxQIEQjOB9EH
+            HwgaCNoH2Af0Bw0I9AcDCPgH9AcBCPIH7Qf2B+sH9wceCNgHuQcACBsI4wfCB/0HCQgACO8H9gf8B/sH
+            6gfyB/IH8QfoB/sH+gf1B+4H+Qf3B/0H7wfzB/EH8gcfCAMIugfoByAI/QfJB94HBAgACAII8gf+B/IH
+            +AfxB/AH6gfxBwQI1wfOBxUIHwjPB9AHFggQCPQH4AfoB+oHAQj8B/IH9Af8B/QHBQgQCOUH2gceCBMI
+            0gfVBw8IDgjqB9sH6AfsB+8H+wf2B+sH8gf2B+8HCgjTB9QHGAgYCNUH2QckCA4IyAfYBygIEQjQB94H
+            KAj6B80H4Af4BxII9Qf8B/YH8wfxB/UH9wf0B/cH2wfjByMIBQjAB+UHJwgBCNkH3wf1B/YHBwgDCO8H
+            9gfxB/sH8gf6B/IH8gfoB/QH+QftB/cH8Af1BwAI8wfLB/0HLAj0B8QHBQgcCPcH2gflB+8HBAj0B/oH
+            +gf4B/8H+AfrB/MHGQjhB8UHBggfCNsH0Af7Bw0I/gf6B+8H9Qf5B+wH8QfsB/IH6wcICAQIygfSBxoI
+            /wfYB+cHGQgLCP8H5QfvB+4H9QftB/AH7QfxB+oHAggMCMoH2AcXCAoI0gfcBxIICggCCO0H8wfuB+4H
+            7gfxB/cH8QfpB/wHGAjSB8MHGggjCN4H1QcaCCUI0QfQBx0IFAjSB9MHEQgMCN8H3QfrBwEI8QfxB/kH
+            7QfyB/YH+gfqB/cH9wfqB/cH8QfxB/oH9wfxB/QHBgjZB88HHggNCNIHzQcXCAsI2AfeByEICgjNB+AH
+            GwgRCMwH7Qf3BwIIBQj4B/cH9gf0B/oH4gfqB+QHCwjoB7wH9AcfCPQHwgfxBxYICAjpB+kH8AfvB/QH
+            9QfxB/UH+wf9B/4H8gf5B/8HAgj8B/IH9gftB+gHAQj0B8MH4gcmCP8HugfuBwsIDAjuB/gH5wfyB/MH
+            9AfwB/MH8gfzB9wH+gcmCOsH0QcGCBsI5QfdB/IHBAj8B/kH/wf2B/kH6wf1B/MH6wfdBw8IEgjPB8gH
+            EggGCNYH2Af0Bw0IAAgCCPkHAAjzB+EH8gf0B/YH2gcACCMIyQfLBwUIEQjQB9cHIQgUCM4H1AcnCAsI
+            0gfaBx0ICAjyB+oH5gfvB/gH9gf0B/YH+Qf1B+sH9AfrB/cH7Qf7B/kH+Af1B+0H6QcDCAcIvwfbByMI
+            DgjOB+AHCwgVCAUI5gfpB+sH+wfrB/kH7AfsB/QH5gfhByMIAgjMB+UHIgj9B8gH+QchCAAIyQf6Bx4I
+            9QfNB/QHEAgDCOEH7AftB+0H7wfnB/IH8Af9B/MH+gf5B/cH8wfvB/QH+gf4B/8H7gcFCAgIvwfdBygI
+            CQjOB90HIQgLCMkH5gcVCAYIygflBxAIAQjVB+IH9QcFCP8H+Qf4B/wHBgjmB/cH8Qf4B+8H9AfyB/QH
+            7wfrB/oH9wfwBwoIBgi8B+oHHAgVCMUH4gcVCBAI9AfqB+0H8QfzB/IH8gf5B/sH7gfhB+4HLQj7B8UH
+            /QceCOkH3gfbB/YHBQj2B/0H9wcDCAAI8wfzB+sH4AcICBYI0ge/BxgIHgjKB88HEggYCNYHzAceCBcI
+            2gfSBw8IBQj2B98H8QflB/gH7gfyB/0HAAjqB+0HAwgXCM0HzgccCA8I1AfSBw8IAgj7B/EH7AfsB/EH
+            8AfuB/EH8gfwB/IH8gf5B/wH8wfvBwMIAwj2B+8H+QcXCNgHygcZCBMI1gfZBwEIEAjxB/EH9AfqB/YH
+            4wfuB/UH+gfxB9IH8wcgCPwHuwf2Bx4I8AfFB/gHKwj0B8YH9QcjCO4Hywf9BxgI/wfoB+4H6wfwB/AH
+            9gf5B/EH6AfyB/kH/AfyB/YH6wf3B/AH+gf7B+wHCAgdCM0H2QcYCBEIzQfiByEIEgjJB+MHFQgKCMgH
+            2QcpCAkI2gfcB+8H+gf+B/EH9Qf9B/YH9gf3B+0HEAgCCM8H3gcYCBgIyAfjBwUIEQj8B/UH7QfvB/EH
+            9AfpB+wH7Af8B/UH9gf5B/kH8gftB/UH/Af1B/QH+wcXCOsHuAf8Bx8I+AfFB/gHEgjtB8kH/QcmCOcH
+            zAcGCCAI9QfaB90H9Af3B/IH9QcACPgH+wf4B/gH8QceCAEIxAfkBx4IAAjHB+YH/gcICPUH+wfyB/cH
+            4wfnBwMI+gfwB/kH7gf/B/cH/Af9B+oH/wfwB+wH5gcYCAQIygfjBxwIAwjOB+AH+wcOCAMI9gfyB/kH
+            5wfuB+kH7gcFCPcHzgf3BysI8gfIB/sHKAjnB9AH9wchCOQHxQf6ByII9AfIB/UHCggMCPcH9Qf5B/cH
+            /AfrB+4H9gfzB9IH/wclCNQHuwf6BxcI7QfVB+oHAwj6BwYIBAj4B/sH/wf9B/AH5wfmByQI9AerB+0H
+            IwjmB8gH9Qf/BwgIAgj2B/MH7wfsB+wH8Af3B/cH6QccCAMItwfrBxsIBgjHB+QH9gcLCAAI/AfxBwEI
+            /gfwB+4H7gf0B/QH8wf0B/AH9Af1B/IH/Qf6B/YH2wfuBy0I9wfAB/IHKAjqB8MH+wcfCO0HyQcECCII
+            6AfIBwAIGAgQCPMH1wfyB+wH7gfvB/MH9wf5B/IH8wf5B/gH9Qf2B/EH9AcICPcH5wfdB+0HNwjgB8cH
+            +AceCOcH2wfrB/sH/wfyB/oH/Af5B/QH8AfsB/QHAwjpB8kHBQgYCOQHyAcQCCMI4wfEBxYIHAjjB8oH
+            DwgeCN8H2gfsB/gH/wcDCPIH9gf1B/QH8wf2B/YH2wfmBzII+gfCB+sHKQj9B9cH1AfsB/0H9AcECPsH
+            AQjyB/gH8wfxB/sH7AfvB+0H/gfsB/IH7gfrB/cH5gfXBywICgjXB9cHGQgaCMMH5wcTCA4I0gfdBxMI
+            Egi9B+IHAAgECPwH8wf6B/wH9AfjB+8H5wfuB/YH7gfjBxIIFgjaB9MHGQgbCOAH1QfjB/YH9wfzB/sH
+            9Qf5BwEI7wfyB+wH9AfxB/wH8QfqB+8H8wfwBwII4wfPBxsIFgjZB8sHFQgRCNAH1AcVCA8I2QfVBxEI
+            FAjQB9cHBwgYCAII+wfvB+wH+gf0B/EH9gf1B/0H5Qf4B+oH6wfwB+oH/wfzB/kH+AfjB+QHJggOCNgH
+            1AcXCBEI3gfiB+8H/wcACPsH9gf7B/EH9Af3B/MHAggICLgH8gchCOoHxgf6BxwI8AfDB/sHHQjsB8wH
+            9gciCPYH2gfpB/gH/wf7B/wH9wcBCP8H7Af1B+8H9QfuB/8H8gfxB/YH7wf4B+UH8gfdB/QHHAjyB8MH
+            9gcfCO4HxwfzByMI/AfKB/kHLAj5B7sH9QcXCAcI9QfsB+sH6wftB+kH5gf3B+UHBgjbB9UHHAgcCNIH
+            zgcPCBsI5wfaB+oH8gf4B/kHAAj6B/YH+QfxB+sHAQjtBwQI4wfxB/IH6gf4B/cHAQjlB94HKggHCLkH
+            5AcQCBMI2QfcB/wH8wcMCP8H+gcFCPwH8wf0B/UH7wfvB+sH9AfoB/MH9QfzB/MH5wf4B/EH8Af/B/4H
+            6wf7B/AHAAj6B/4H8wfyB/AH+AfsB+0H9QfvB/cH+QfsB/cH9wfxB/cHAwjxB/0H9wf1B/MH/wfjB/sH
+            8Af2B/EH9wfwB/AH8QfnB/QH8Qf4B/EH+QftB/MH6gf1B/gH8gcCCPIHAAj4B/kH7Qf2B/AH9wf5B+kH
+            9wf1B/UH/Af3B+4H6gf1B/EH9wfyB/4H6Qf2B/AH9AfxB/EHAgj9B/QH8QcECPIH+wf0B/UH8wfzB/MH
+            +Af3B/4H9AfyB/sH8AfpB/UH+AfxB/gH/wf5B/QH7wf2B/UH7wfwB/gH+gfyB/EH7QflB/sH+AftB/cH
+            9gf3B/IH8wftBwAI8wf6B/AH8gf3B+oH8Af3B/gH8wf6B+QH9QftB/gH+wfvB/AH+AfwB/QH7wfsB/kH
+            +gfzB+4H/gfwB/wH9wfwB/oH9gf1B/0H9Qf8B/MH/Af5B/UH5QfzB/QH8QfwB/UH9QfzB+gH7gf0B/UH
+            9Qf6B/cH/gfzB/sH9wf6B/AH7Af2B/YH+wfvB/AH8Qf0B/cH/wfxB+kH8gftB/IH9gf6B/QH8wfuB/YH
+            8wf2B/cH8Qf0B+4H8wf8B+8H+Af1B/gH9Qf5B/IH+Qf2B/sH8Qf3B/kH+Af1B+0H6wfyB/AH9wf3BwQI
+            9wfwB/gH7wf2B/kH7QfzB+wH9QfuB+4H+AfyB/gH/gf2B+oH8gf3B/YH+QfyB/EH8gf6B/EH8wfyB/sH
+            8Qf5B+wH+gfzB/8H8Qf0B/oH6gf4B/kH9QfvB/YH9Af8B+oH8Qf2B/QH+wf2B/UH8gf2B+4H9wf8B/EH
+            """;
+
+    private TinySamples() {}
+}
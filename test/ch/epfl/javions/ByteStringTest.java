@@ -2,6 +2,8 @@ package ch.epfl.javions;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ByteStringTest {
@@ -91,4 +93,69 @@ class ByteStringTest {
         var bs = ByteString.ofHexadecimalString("0123456789abcdef");
         assertEquals("0123456789ABCDEF", bs.toString());
     }
+
+    @Test
+    void byteStringWrapSharesBytesUntilCopied() {
+        var bytes = new byte[]{1, 2, 3, 4, 5};
+        var bs = ByteString.wrap(bytes, 1, 3);
+        var copy = bs.copy();
+        assertEquals(3, bs.size());
+        assertEquals(2, bs.byteAt(0));
+        bytes[1] = 9;
+        assertEquals(9, bs.byteAt(0));
+        assertEquals(2, copy.byteAt(0));
+        assertSame(copy, copy.copy());
+    }
+
+    @Test
+    void byteStringWrapThrowsIfSliceIsOutOfArray() {
+        var bytes = new byte[4];
+        assertThrows(IndexOutOfBoundsException.class, () -> ByteString.wrap(bytes, 2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> ByteString.wrap(bytes, -1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> ByteString.wrap(bytes, 1, 2).byteAt(2));
+    }
+
+    @Test
+    void byteStringBytesInRangeWorksOnSlicesOfAnySize() {
+        var bytes = new byte[20];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) (0x81 + 17 * i);
+
+        for (int offset = 0; offset < bytes.length; offset++) {
+            for (int length = 0; offset + length <= bytes.length; length++) {
+                var bs = ByteString.wrap(bytes, offset, length);
+                for (int from = 0; from <= length; from++) {
+                    for (int to = from; to <= Math.min(length, from + 7); to++) {
+                        long expected = 0;
+                        for (int i = from; i < to; i++)
+                            expected = (expected << 8) | Byte.toUnsignedInt(bytes[offset + i]);
+                        assertEquals(expected, bs.bytesInRange(from, to));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void byteStringEqualsAndHashCodeOnlyDependOnSliceContents() {
+        var bytes = new byte[]{7, 1, 2, 3, 1, 2, 3};
+        var bs1 = ByteString.wrap(bytes, 1, 3);
+        var bs2 = ByteString.wrap(bytes, 4, 3);
+        var bs3 = new ByteString(new byte[]{1, 2, 3});
+        assertEquals(bs1, bs2);
+        assertEquals(bs1, bs3);
+        assertEquals(bs1.hashCode(), bs3.hashCode());
+        assertEquals("010203", bs2.toString());
+        assertNotEquals(bs1, ByteString.wrap(bytes, 0, 3));
+    }
+
+    @Test
+    void byteStringWrapOfByteBufferViewsItsRemainingBytes() {
+        var heap = ByteBuffer.wrap(new byte[]{1, 2, 3, 4}).position(1);
+        var direct = ByteBuffer.allocateDirect(4).put(new byte[]{1, 2, 3, 4}).position(1);
+        assertEquals(ByteString.ofHexadecimalString("020304"), ByteString.wrap(heap));
+        assertEquals(ByteString.ofHexadecimalString("020304"), ByteString.wrap(direct));
+        assertEquals(1, heap.position());
+        assertEquals(1, direct.position());
+    }
 }
\ No newline at end of file
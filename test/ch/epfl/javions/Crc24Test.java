@@ -2,8 +2,10 @@ package ch.epfl.javions;
 
 
 import org.junit.jupiter.api.Test;
+import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -121,4 +123,30 @@ class Crc24Test {
             assertEquals(0, crc24.crc(m));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void crcIsEqualToBitwiseCrcForAllLengths() {
+        Crc24 crc24 = new Crc24(Crc24.GENERATOR);
+        Random random = new Random(2023);
+        for (int length = 0; length <= 32; length++) {
+            for (int i = 0; i < 100; i++) {
+                byte[] bytes = new byte[length];
+                random.nextBytes(bytes);
+                assertEquals(Crc24.crc_bitwise(Crc24.GENERATOR, bytes), crc24.crc(bytes));
+            }
+        }
+    }
+
+    @Test
+    void crcUpdateIsEqualToCrcOfPrefixes() {
+        Crc24 crc24 = new Crc24(Crc24.GENERATOR);
+        Random random = new Random(2023);
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        int crc = 0;
+        for (int length = 1; length <= bytes.length; length++) {
+            crc = crc24.update(crc, bytes[length - 1]);
+            assertEquals(crc24.crc(Arrays.copyOf(bytes, length)), crc);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.CrcErrorCorrector;
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static ch.epfl.javions.demodulation.SyntheticSamples.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdsbDemodulatorFormatsTest {
+    private static List<String> messages(byte[] samples, boolean allDownLinkFormats, CrcErrorCorrector corrector)
+            throws IOException {
+        var messages = new ArrayList<String>();
+        try (var s = new ByteArrayInputStream(samples)) {
+            var demodulator = new AdsbDemodulator(s);
+            demodulator.setAllDownLinkFormats(allDownLinkFormats);
+            demodulator.setErrorCorrector(corrector);
+            RawMessage message;
+            while ((message = demodulator.nextMessage()) != null) messages.add(message.bytes().toString());
+        }
+        return messages;
+    }
+
+    private static byte[] samplesOf(String... messages) {
+        var samples = noise(new Random(2023), 2000 * (messages.length + 1));
+        for (var i = 0; i < messages.length; i += 1) addMessage(samples, 1000 + 2000 * i, messages[i], 500);
+        return toBytes(samples);
+    }
+
+    @Test
+    void adsbDemodulatorReturnsOnlyAdsbMessagesByDefault() throws IOException {
+        var allCall = frame("5D4B17E5", 0);
+        var adsb = "8D49529958B302E6E15FA352306B";
+        var identity = frame("28001234", 0x4B17E5);
+        var samples = samplesOf(allCall, adsb, identity);
+
+        assertEquals(List.of(adsb), messages(samples, false, null));
+        assertEquals(List.of(allCall, adsb, identity), messages(samples, true, null));
+    }
+
+    @Test
+    void adsbDemodulatorAcceptsSurveillanceRepliesOfCheckedAddressesOnly() throws IOException {
+        var adsb = "8D4B17E5F8210002004BB8B1F1AC";
+        var identity = frame("28001234", 0x4B17E5);
+        assertEquals(List.of(adsb, identity), messages(samplesOf(adsb, identity), true, null));
+        assertEquals(List.of(), messages(samplesOf(identity), true, null));
+
+        var allCall = frame("5D4B17E5", 3);
+        assertEquals(List.of(allCall), messages(samplesOf(allCall, identity), true, null));
+
+        var flipped = "8D4B17E5F8210002004BB8B1F1AD";
+        var corrector = new CrcErrorCorrector(1);
+        assertEquals(List.of(adsb), messages(samplesOf(flipped, identity), true, corrector));
+        assertEquals(1, corrector.correctedCount());
+        assertEquals(List.of(adsb, identity), messages(samplesOf(adsb, identity), true, corrector));
+    }
+
+    @Test
+    void adsbDemodulatorCorrectsOnlyAdsbMessages() throws IOException {
+        var df18 = frame("904B17E5F8210002004BB8", 0);
+        var flipped = df18.substring(0, df18.length() - 1) + (df18.endsWith("0") ? "1" : "0");
+        var corrector = new CrcErrorCorrector(1);
+        assertEquals(List.of(df18), messages(samplesOf(df18), true, corrector));
+        assertEquals(List.of(), messages(samplesOf(flipped), true, corrector));
+        assertEquals(0, corrector.correctedCount());
+    }
+}
@@ -0,0 +1,142 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static ch.epfl.javions.demodulation.SyntheticSamples.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedDemodulatorTest {
+    private static final String[] MESSAGES = {
+            "8D4B17E5F8210002004BB8B1F1AC", "8D49529958B302E6E15FA352306B", "8D39D300990CE72C70089058AD77",
+            "8D4241A9601B32DA4367C4C3965E", "8D4B1A00EA0DC89E8F7C0857D5F5", "8D4D222860B985F7F53FAB33CE76"};
+    private static final int FRAME_SAMPLES = 1200;
+
+    @TempDir
+    Path tempDir;
+
+    private static List<RawMessage> sequentialMessages(InputStream stream) throws IOException {
+        return sequentialMessages(stream, false);
+    }
+
+    private static List<RawMessage> sequentialMessages(InputStream stream, boolean allDownLinkFormats)
+            throws IOException {
+        var messages = new ArrayList<RawMessage>();
+        var demodulator = new AdsbDemodulator(stream);
+        demodulator.setAllDownLinkFormats(allDownLinkFormats);
+        RawMessage message;
+        while ((message = demodulator.nextMessage()) != null) messages.add(message);
+        return messages;
+    }
+
+    private static byte[] randomSamples(long seed, int messagesCount) {
+        var rng = new Random(seed);
+        var samples = noise(rng, messagesCount * (2 * FRAME_SAMPLES + 1000));
+
+        var position = 0;
+        for (var k = 0; k < messagesCount; k += 1) {
+            position += rng.nextInt(-FRAME_SAMPLES / 4, FRAME_SAMPLES + 1000);
+            position = Math.max(0, position);
+            addMessage(samples, position, MESSAGES[rng.nextInt(MESSAGES.length)], 100 + rng.nextInt(800));
+            position += FRAME_SAMPLES;
+        }
+        return toBytes(samples);
+    }
+
+    @Test
+    void chunkedDemodulatorReturnsNoMessageForEmptyFile() throws IOException {
+        var file = Files.write(tempDir.resolve("empty.bin"), new byte[0]);
+        assertTrue(ChunkedDemodulator.demodulate(file).isEmpty());
+    }
+
+    @Test
+    void chunkedDemodulatorWorksOnSingleMessage() throws IOException {
+        var samples = noise(new Random(2023), 3 * FRAME_SAMPLES);
+        addMessage(samples, FRAME_SAMPLES, MESSAGES[0], 500);
+        var bytes = toBytes(samples);
+        var file = Files.write(tempDir.resolve("single.bin"), bytes);
+
+        var messages = ChunkedDemodulator.demodulate(file);
+        assertEquals(1, messages.size());
+        assertEquals(MESSAGES[0], messages.get(0).bytes().toString());
+        assertEquals(sequentialMessages(new ByteArrayInputStream(bytes)), messages);
+    }
+
+    @Test
+    void chunkedDemodulatorFindsSameMessagesAsAdsbDemodulator() throws IOException {
+        var file = Path.of("resources/samples_20230304_1442.bin");
+        List<RawMessage> expected;
+        try (var s = new FileInputStream(file.toFile())) {
+            expected = sequentialMessages(s);
+        }
+
+        assertEquals(expected, ChunkedDemodulator.demodulate(file));
+        assertEquals(expected, ChunkedDemodulator.demodulate(file, false, 1 << 16));
+    }
+
+    @Test
+    void chunkedDemodulatorThrowsOnInvalidChunkSize() throws IOException {
+        var file = Files.write(tempDir.resolve("empty.bin"), new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> ChunkedDemodulator.demodulate(file, false, 0));
+    }
+
+    @Test
+    void chunkedDemodulatorFindsMessagesAroundChunkBoundaries() throws IOException {
+        var chunkSize = 5000;
+        var samples = noise(new Random(2023), 8 * chunkSize);
+        int[] positions = {chunkSize - 600, 2 * chunkSize, 3 * chunkSize - 1, 4 * chunkSize - FRAME_SAMPLES,
+                5 * chunkSize - FRAME_SAMPLES + 1, 6 * chunkSize + 1, 7 * chunkSize - 300, 7 * chunkSize + 900};
+        for (var i = 0; i < positions.length; i += 1) addMessage(samples, positions[i], MESSAGES[i % 6], 500);
+        var bytes = toBytes(samples);
+        var file = Files.write(tempDir.resolve("boundaries.bin"), bytes);
+
+        var expected = sequentialMessages(new ByteArrayInputStream(bytes));
+        assertEquals(positions.length, expected.size());
+        for (var size : new int[]{chunkSize, chunkSize - 1, chunkSize + 1, FRAME_SAMPLES, 999})
+            assertEquals(expected, ChunkedDemodulator.demodulate(file, false, size));
+    }
+
+    @Test
+    void chunkedDemodulatorFindsSameMessagesAsAdsbDemodulatorWithSmallChunks() throws IOException {
+        for (var seed = 0; seed < 5; seed += 1) {
+            var bytes = randomSamples(seed, 200);
+            var file = Files.write(tempDir.resolve("random" + seed + ".bin"), bytes);
+
+            var expected = sequentialMessages(new ByteArrayInputStream(bytes));
+            assertFalse(expected.isEmpty());
+            for (var size : new int[]{997, 3000, 10_007, 1 << 22})
+                assertEquals(expected, ChunkedDemodulator.demodulate(file, false, size));
+        }
+    }
+
+    @Test
+    void chunkedDemodulatorFindsSameMessagesOfAllFormatsAsAdsbDemodulator() throws IOException {
+        var chunkSize = 5000;
+        var samples = noise(new Random(2024), 8 * chunkSize);
+        String[] identities = {frame("28001234", 0x4B17E5), frame("28005678", 0x495299), frame("2800ABCD", 0x39D300)};
+        int[] positions = {100, 1500, 3000, 4800, 6200, 9500, 12000, 14800, 20500, 26000, 31000, 36500};
+        String[] messages = {MESSAGES[0], identities[0], MESSAGES[1], frame("5D39D300", 0), identities[1],
+                identities[0], identities[2], frame("5D4B17E5", 2), identities[1], identities[0], identities[2],
+                frame("28009999", 0x4D2228)};
+        for (var i = 0; i < positions.length; i += 1) addMessage(samples, positions[i], messages[i], 500);
+        var bytes = toBytes(samples);
+        var file = Files.write(tempDir.resolve("formats.bin"), bytes);
+
+        var expected = sequentialMessages(new ByteArrayInputStream(bytes), true);
+        assertEquals(positions.length - 1, expected.size());
+        for (var size : new int[]{chunkSize, 997, 3000, 1 << 22})
+            assertEquals(expected, ChunkedDemodulator.demodulate(file, true, size));
+        assertEquals(2, ChunkedDemodulator.demodulate(file, false, chunkSize).size());
+    }
+}
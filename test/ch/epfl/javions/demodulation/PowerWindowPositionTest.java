@@ -0,0 +1,23 @@
+package ch.epfl.javions.demodulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PowerWindowPositionTest {
+    @Test
+    void powerWindowPositionDoesNotWrapAfterIntegerRange() throws IOException {
+        PowerSource endlessSource = batch -> batch.length;
+        var window = new PowerWindow(endlessSource, AdsbDemodulator.WINDOWSIZE);
+
+        window.advanceBy(Integer.MAX_VALUE);
+        window.advanceBy(10);
+        window.advance();
+        assertEquals((long) Integer.MAX_VALUE + 11, window.position());
+        assertTrue(window.isFull());
+        assertEquals(((long) Integer.MAX_VALUE + 11) * AdsbDemodulator.TIME_FACTOR,
+                SampleTiming.AIRSPY.timeStampNs(window.position()));
+    }
+}
@@ -0,0 +1,48 @@
+package ch.epfl.javions.demodulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentAddressesTest {
+    @Test
+    void recentAddressesContainsOnlyAddedAddresses() {
+        var addresses = new RecentAddresses();
+        assertFalse(addresses.contains(0x4B17E5, 0));
+        addresses.add(0x4B17E5, 0);
+        assertTrue(addresses.contains(0x4B17E5, 0));
+        assertFalse(addresses.contains(0x495299, 0));
+        assertFalse(addresses.contains(0, 0));
+    }
+
+    @Test
+    void recentAddressesForgetsAddressesAfterExpiry() {
+        var addresses = new RecentAddresses();
+        addresses.add(0x4B17E5, 1_000);
+        assertTrue(addresses.contains(0x4B17E5, 1_000 + RecentAddresses.EXPIRY_NS));
+        assertFalse(addresses.contains(0x4B17E5, 1_001 + RecentAddresses.EXPIRY_NS));
+
+        addresses.add(0x4B17E5, 2 * RecentAddresses.EXPIRY_NS);
+        assertTrue(addresses.contains(0x4B17E5, 3 * RecentAddresses.EXPIRY_NS));
+    }
+
+    @Test
+    void recentAddressesKeepsManyAddresses() {
+        var addresses = new RecentAddresses();
+        var count = 10_000;
+        for (var i = 0; i < count; i += 1) addresses.add(i * 1637, i);
+        for (var i = 0; i < count; i += 1) assertTrue(addresses.contains(i * 1637, count));
+        assertFalse(addresses.contains(count * 1637, count));
+    }
+
+    @Test
+    void recentAddressesRemovesForgottenAddressesWhenFull() {
+        var addresses = new RecentAddresses();
+        for (var i = 0; i < 100_000; i += 1) {
+            var timeStampNs = i * RecentAddresses.EXPIRY_NS / 500;
+            addresses.add(i, timeStampNs);
+            assertTrue(addresses.contains(i, timeStampNs));
+            if (i >= 1000) assertFalse(addresses.contains(i - 1000, timeStampNs));
+        }
+    }
+}
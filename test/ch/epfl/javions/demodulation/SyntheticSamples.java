@@ -0,0 +1,70 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Crc24;
+
+import java.util.HexFormat;
+import java.util.Random;
+
+/**
+ * Generates the samples of given messages, as produced by the AirSpy, for the tests of the demodulators.
+ */
+final class SyntheticSamples {
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+
+    /**
+     * @param header    the bytes of a message preceding its parity, in hexadecimal
+     * @param parityXor the value combined with the CRC24 of the header to give the parity
+     * @return the bytes of the message, in hexadecimal
+     */
+    static String frame(String header, int parityXor) {
+        var bytes = HexFormat.of().parseHex(header);
+        var parity = CRC24.crc(bytes) ^ parityXor;
+        return header + HexFormat.of().withUpperCase().toHexDigits(parity).substring(2);
+    }
+
+    private static void addChip(double[] samples, int position, boolean high, int amplitude) {
+        int[] carrier = {1, 0, -1, 0};
+        for (var j = 0; j < 10; j += 1) {
+            if (high && position + j < samples.length)
+                samples[position + j] += amplitude * carrier[(position + j) % carrier.length];
+        }
+    }
+
+    /**
+     * Adds the samples of the given message, starting at the given power sample, to the given raw samples.
+     */
+    static void addMessage(double[] samples, int position, String message, int amplitude) {
+        int[] preamble = {1, 0, 1, 0, 0, 0, 0, 1, 0, 1, 0, 0, 0, 0, 0, 0};
+        var bytes = HexFormat.of().parseHex(message);
+        var chip = 0;
+        for (var p : preamble) addChip(samples, 2 * position + 10 * chip++, p == 1, amplitude);
+        for (var b : bytes) {
+            for (var i = 7; i >= 0; i -= 1) {
+                var bit = ((b >> i) & 1) == 1;
+                addChip(samples, 2 * position + 10 * chip++, bit, amplitude);
+                addChip(samples, 2 * position + 10 * chip++, !bit, amplitude);
+            }
+        }
+    }
+
+    static byte[] toBytes(double[] samples) {
+        var bytes = new byte[2 * samples.length];
+        for (var i = 0; i < samples.length; i += 1) {
+            var sample = Math.max(0, Math.min(4095, (int) Math.round(samples[i]) + 2048));
+            bytes[2 * i] = (byte) sample;
+            bytes[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the raw samples of the given number of power samples of gaussian noise
+     */
+    static double[] noise(Random rng, int powerSamplesCount) {
+        var samples = new double[2 * powerSamplesCount];
+        for (var i = 0; i < samples.length; i += 1) samples[i] = rng.nextGaussian() * 20;
+        return samples;
+    }
+
+    private SyntheticSamples() {}
+}